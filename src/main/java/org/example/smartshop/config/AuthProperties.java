@@ -0,0 +1,28 @@
+package org.example.smartshop.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.example.smartshop.enums.AuthMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "smartshop.auth")
+public class AuthProperties {
+
+    private AuthMode mode = AuthMode.SESSION;
+    private Token token = new Token();
+
+    @Getter
+    @Setter
+    public static class Token {
+        private Duration ttl = Duration.ofHours(8);
+        private String activeKeyId;
+        // Key id to base64 secret of at least 32 bytes; keep the previous key listed until its tokens expire
+        private Map<String, String> keys = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.smartshop.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.smartshop.enums.CustomerTier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "smartshop.loyalty")
+public class LoyaltyProperties {
+
+    private Threshold silver = new Threshold(3, 1000);
+    private Threshold gold = new Threshold(10, 5000);
+    private Threshold platinum = new Threshold(20, 15000);
+    private int recalculationChunkSize = 5000;
+
+    // Highest tier first; a client gets the first tier whose order count or spend threshold it reaches
+    public Map<CustomerTier, Threshold> thresholds() {
+        Map<CustomerTier, Threshold> thresholds = new LinkedHashMap<>();
+        thresholds.put(CustomerTier.PLATINUM, platinum);
+        thresholds.put(CustomerTier.GOLD, gold);
+        thresholds.put(CustomerTier.SILVER, silver);
+        return thresholds;
+    }
+
+    public CustomerTier tierFor(int totalOrders, double totalSpent) {
+        for (Map.Entry<CustomerTier, Threshold> entry : thresholds().entrySet()) {
+            if (totalOrders >= entry.getValue().getMinOrders() || totalSpent >= entry.getValue().getMinSpent()) {
+                return entry.getKey();
+            }
+        }
+        return CustomerTier.BASIC;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Threshold {
+        private int minOrders;
+        private double minSpent;
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.smartshop.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Runs once the Liquibase changelog has been applied and refuses to start when a query the hot paths rely on
+// would fall back to a sequential scan. Any index whose leading columns match counts, whatever its name
+@Slf4j
+@Component
+public class SchemaIndexVerifier implements SmartInitializingSingleton {
+
+    static final List<IndexRequirement> REQUIRED = List.of(
+            new IndexRequirement("orders", "client_id", "date_creation"),
+            new IndexRequirement("orders", "status", "date_creation"),
+            new IndexRequirement("orders", "date_creation", "id"),
+            new IndexRequirement("order_items", "order_id"),
+            new IndexRequirement("payments", "order_id", "numero_paiement"),
+            new IndexRequirement("stock_reservations", "order_id", "status"),
+            new IndexRequirement("stock_reservations", "status", "expires_at"),
+            new IndexRequirement("idempotency_keys", "scope", "idempotency_key"),
+            new IndexRequirement("idempotency_keys", "created_at"),
+            new IndexRequirement("promo_redemptions", "promo_code_id", "client_id"));
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    public SchemaIndexVerifier(DataSource dataSource,
+                               @Value("${smartshop.schema.verify-indexes:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        List<IndexRequirement> missing = missing(REQUIRED);
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes " + missing
+                    + "; check that the Liquibase changelog ran against this schema");
+        }
+        log.info("Verified {} required database indexes", REQUIRED.size());
+    }
+
+    List<IndexRequirement> missing(List<IndexRequirement> requirements) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, List<List<String>>> indexesByTable = new HashMap<>();
+            List<IndexRequirement> missing = new ArrayList<>();
+
+            for (IndexRequirement requirement : requirements) {
+                List<List<String>> indexes = indexesByTable.get(requirement.table());
+                if (indexes == null) {
+                    indexes = readIndexes(metaData, connection.getSchema(), requirement.table());
+                    indexesByTable.put(requirement.table(), indexes);
+                }
+                if (indexes.stream().noneMatch(requirement::isCoveredBy)) {
+                    missing.add(requirement);
+                }
+            }
+            return missing;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read database index metadata", e);
+        }
+    }
+
+    // Column lists of every index on the table, in index column order
+    private static List<List<String>> readIndexes(DatabaseMetaData metaData, String schema, String table)
+            throws SQLException {
+        String name = metaData.storesUpperCaseIdentifiers()
+                ? table.toUpperCase(Locale.ROOT)
+                : table.toLowerCase(Locale.ROOT);
+
+        Map<String, TreeMap<Short, String>> columnsByIndex = new HashMap<>();
+        try (ResultSet rows = metaData.getIndexInfo(null, schema, name, false, true)) {
+            while (rows.next()) {
+                String index = rows.getString("INDEX_NAME");
+                String column = rows.getString("COLUMN_NAME");
+                if (index == null || column == null) {
+                    continue;
+                }
+                columnsByIndex.computeIfAbsent(index, key -> new TreeMap<>())
+                        .put(rows.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<List<String>> indexes = new ArrayList<>();
+        for (TreeMap<Short, String> columns : columnsByIndex.values()) {
+            indexes.add(List.copyOf(columns.values()));
+        }
+        return indexes;
+    }
+
+    // Direction is not checked: a btree on (client_id, date_creation) is scanned backwards for date_creation DESC
+    record IndexRequirement(String table, List<String> columns) {
+
+        IndexRequirement(String table, String... columns) {
+            this(table, List.of(columns));
+        }
+
+        boolean isCoveredBy(List<String> index) {
+            return index.size() >= columns.size() && index.subList(0, columns.size()).equals(columns);
+        }
+
+        @Override
+        public String toString() {
+            return table + columns;
+        }
+    }
+}
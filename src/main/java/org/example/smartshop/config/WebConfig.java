@@ -0,0 +1,30 @@
+package org.example.smartshop.config;
+
+import lombok.RequiredArgsConstructor;
+import org.example.smartshop.security.CurrentUserArgumentResolver;
+import org.example.smartshop.security.SessionAuthInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final SessionAuthInterceptor sessionAuthInterceptor;
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
+
+    // Actuator endpoints stay outside /api and are not gated by the session
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sessionAuthInterceptor).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+}
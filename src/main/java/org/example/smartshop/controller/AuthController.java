@@ -1,9 +1,12 @@
 package org.example.smartshop.controller;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.smartshop.dtos.request.LoginRequest;
+import org.example.smartshop.security.CurrentUser;
+import org.example.smartshop.security.PublicEndpoint;
 import org.example.smartshop.services.AuthService;
 import org.example.smartshop.utils.SessionUser;
 import org.springframework.http.ResponseEntity;
@@ -16,24 +19,23 @@ public class AuthController {
 
     private final AuthService authService;
 
+    @PublicEndpoint
     @PostMapping("/login")
-    public ResponseEntity<SessionUser> login(@Valid @RequestBody LoginRequest request, HttpSession session){
-        SessionUser user = authService.login(request, session);
+    public ResponseEntity<SessionUser> login(@Valid @RequestBody LoginRequest request,
+                                             HttpServletRequest httpRequest, HttpServletResponse httpResponse){
+        SessionUser user = authService.login(request, httpRequest, httpResponse);
         return ResponseEntity.ok(user);
     }
 
+    @PublicEndpoint
     @PostMapping("/logout")
-    public ResponseEntity<String> logout(HttpSession session){
-        authService.logout(session);
+    public ResponseEntity<String> logout(HttpServletRequest httpRequest){
+        authService.logout(httpRequest);
         return ResponseEntity.ok("Logged out successfully");
     }
 
     @GetMapping("/me")
-    public ResponseEntity<SessionUser> getCurrentUser(HttpSession session){
-        SessionUser user = authService.getCurrentUser(session);
-        if(user == null){
-            return ResponseEntity.status(401).build();
-        }
+    public ResponseEntity<SessionUser> getCurrentUser(@CurrentUser SessionUser user){
         return ResponseEntity.ok(user);
     }
 }
@@ -1,14 +1,16 @@
 package org.example.smartshop.controller;
 
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.smartshop.dtos.request.ClientRequest;
 import org.example.smartshop.dtos.response.ClientResponse;
 import org.example.smartshop.dtos.response.OrderResponse;
+import org.example.smartshop.dtos.response.TierRecalculationResponse;
 import org.example.smartshop.enums.UserRole;
-import org.example.smartshop.exception.UnauthorizedException;
+import org.example.smartshop.security.CurrentUser;
+import org.example.smartshop.security.RequireRole;
 import org.example.smartshop.services.ClientService;
+import org.example.smartshop.services.LoyaltyTierService;
 import org.example.smartshop.utils.SessionUser;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,30 +24,17 @@ import java.util.List;
 public class ClientController {
 
     private final ClientService clientService;
+    private final LoyaltyTierService loyaltyTierService;
 
-    private SessionUser getCurrentUser(HttpSession session) {
-        SessionUser user = (SessionUser) session.getAttribute("CURRENT_USER");
-        if (user == null) {
-            throw new UnauthorizedException("Unauthorized");
-        }
-        return user;
-    }
-
+    @RequireRole(UserRole.ADMIN)
     @PostMapping
-    public ResponseEntity<ClientResponse> createClient(@Valid @RequestBody ClientRequest request, HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
+    public ResponseEntity<ClientResponse> createClient(@Valid @RequestBody ClientRequest request) {
         ClientResponse response = clientService.createClient(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ClientResponse> getClientById(@PathVariable Long id, HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-
+    public ResponseEntity<ClientResponse> getClientById(@PathVariable Long id, @CurrentUser SessionUser user) {
         if (user.getRole() == UserRole.CLIENT && !id.equals(user.getClientId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
@@ -54,45 +43,30 @@ public class ClientController {
         return ResponseEntity.ok(response);
     }
 
+    @RequireRole(UserRole.ADMIN)
     @PutMapping("/{id}")
     public ResponseEntity<ClientResponse> updateClient(@PathVariable Long id,
-                                                       @Valid @RequestBody ClientRequest request,
-                                                       HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
+                                                       @Valid @RequestBody ClientRequest request) {
         ClientResponse response = clientService.updateClient(id, request);
         return ResponseEntity.ok(response);
     }
 
+    @RequireRole(UserRole.ADMIN)
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteClient(@PathVariable Long id, HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
+    public ResponseEntity<Void> deleteClient(@PathVariable Long id) {
         clientService.deleteClient(id);
         return ResponseEntity.noContent().build();
     }
 
+    @RequireRole(UserRole.ADMIN)
     @GetMapping
-    public ResponseEntity<List<ClientResponse>> getAllClients(HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
+    public ResponseEntity<List<ClientResponse>> getAllClients() {
         List<ClientResponse> clients = clientService.getAllClients();
         return ResponseEntity.ok(clients);
     }
 
     @GetMapping("/{id}/orders")
-    public ResponseEntity<List<OrderResponse>> getClientOrderHistory(@PathVariable Long id, HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-
+    public ResponseEntity<List<OrderResponse>> getClientOrderHistory(@PathVariable Long id, @CurrentUser SessionUser user) {
         if (user.getRole() == UserRole.CLIENT && !id.equals(user.getClientId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
@@ -100,4 +74,12 @@ public class ClientController {
         List<OrderResponse> orders = clientService.getClientOrderHistory(id);
         return ResponseEntity.ok(orders);
     }
+
+    @RequireRole(UserRole.ADMIN)
+    @PostMapping("/tiers/recalculate")
+    public ResponseEntity<TierRecalculationResponse> recalculateTiers(
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+        TierRecalculationResponse response = loyaltyTierService.recalculateTiers(dryRun);
+        return ResponseEntity.ok(response);
+    }
 }
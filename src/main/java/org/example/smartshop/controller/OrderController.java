@@ -1,49 +1,102 @@
 package org.example.smartshop.controller;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.example.smartshop.dtos.request.OrderBatchRequest;
+import org.example.smartshop.dtos.request.OrderFilterRequest;
 import org.example.smartshop.dtos.request.OrderRequest;
+import org.example.smartshop.dtos.response.OrderBatchResponse;
+import org.example.smartshop.dtos.response.OrderPageResponse;
+import org.example.smartshop.dtos.response.OrderQuoteResponse;
 import org.example.smartshop.dtos.response.OrderResponse;
+import org.example.smartshop.enums.ExportFormat;
 import org.example.smartshop.enums.UserRole;
+import org.example.smartshop.security.CurrentUser;
+import org.example.smartshop.security.RequireRole;
+import org.example.smartshop.services.IdempotencyService;
+import org.example.smartshop.services.OrderExportService;
 import org.example.smartshop.services.OrderService;
 import org.example.smartshop.utils.SessionUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/orders")
-@RequiredArgsConstructor
 public class OrderController {
 
     private final OrderService orderService;
-
-    private SessionUser getCurrentUser(HttpSession session) {
-        SessionUser user = (SessionUser) session.getAttribute("CURRENT_USER");
-        if (user == null) {
-            throw new RuntimeException("Unauthorized");
-        }
-        return user;
+    private final IdempotencyService idempotencyService;
+    private final OrderExportService orderExportService;
+    private final Duration exportTimeout;
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    public OrderController(OrderService orderService,
+                           IdempotencyService idempotencyService,
+                           OrderExportService orderExportService,
+                           @Value("${smartshop.export.timeout:30m}") Duration exportTimeout) {
+        this.orderService = orderService;
+        this.idempotencyService = idempotencyService;
+        this.orderExportService = orderExportService;
+        this.exportTimeout = exportTimeout;
     }
 
+    @RequireRole(UserRole.ADMIN)
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request,
-                                                     HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
+                                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                     @CurrentUser SessionUser user) {
+        OrderResponse response = idempotencyService.execute("orders", user.getId(), idempotencyKey, request,
+                OrderResponse.class, () -> orderService.createOrder(request));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    // Clients may quote their own cart; nothing is persisted so no idempotency key is needed
+    @PostMapping("/quote")
+    public ResponseEntity<OrderQuoteResponse> quoteOrder(@Valid @RequestBody OrderRequest request,
+                                                         @CurrentUser SessionUser user) {
+        if (user.getRole() != UserRole.ADMIN && !request.getClientId().equals(user.getClientId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        OrderResponse response = orderService.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.ok(orderService.quoteOrder(request));
+    }
+
+    @RequireRole(UserRole.ADMIN)
+    @PostMapping("/batch")
+    public ResponseEntity<OrderBatchResponse> createOrders(@Valid @RequestBody OrderBatchRequest request) {
+        OrderBatchResponse response = orderService.createOrders(request.getOrders());
+        return ResponseEntity.ok(response);
+    }
+
+    @RequireRole(UserRole.ADMIN)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                              HttpServletRequest request) {
+        // A full export outlives the default async timeout, so only this response gets the long one
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+
+        MediaType mediaType = format == ExportFormat.CSV ? TEXT_CSV : APPLICATION_NDJSON;
+        String fileName = "orders." + (format == ExportFormat.CSV ? "csv" : "ndjson");
+
+        StreamingResponseBody body = outputStream -> orderExportService.exportOrders(format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id, HttpSession session) {
-        SessionUser user = getCurrentUser(session);
+    public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id, @CurrentUser SessionUser user) {
         OrderResponse order = orderService.getOrderById(id);
 
         if (user.getRole() == UserRole.CLIENT && !order.getClientId().equals(user.getClientId())) {
@@ -53,35 +106,23 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
+    @RequireRole(UserRole.ADMIN)
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getAllOrders(HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
-        List<OrderResponse> orders = orderService.getAllOrders();
+    public ResponseEntity<OrderPageResponse> getOrders(@ModelAttribute OrderFilterRequest filter) {
+        OrderPageResponse orders = orderService.getOrders(filter);
         return ResponseEntity.ok(orders);
     }
 
+    @RequireRole(UserRole.ADMIN)
     @PutMapping("/{id}/confirm")
-    public ResponseEntity<OrderResponse> confirmOrder(@PathVariable Long id, HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
+    public ResponseEntity<OrderResponse> confirmOrder(@PathVariable Long id) {
         OrderResponse response = orderService.confirmOrder(id);
         return ResponseEntity.ok(response);
     }
 
+    @RequireRole(UserRole.ADMIN)
     @PutMapping("/{id}/cancel")
-    public ResponseEntity<OrderResponse> cancelOrder(@PathVariable Long id, HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
+    public ResponseEntity<OrderResponse> cancelOrder(@PathVariable Long id) {
         OrderResponse response = orderService.cancelOrder(id);
         return ResponseEntity.ok(response);
     }
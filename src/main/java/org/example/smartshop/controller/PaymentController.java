@@ -1,12 +1,14 @@
 package org.example.smartshop.controller;
 
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.smartshop.dtos.request.PaymentRequest;
 import org.example.smartshop.dtos.request.UpdatePaymentStatusRequest;
 import org.example.smartshop.dtos.response.PaymentResponse;
 import org.example.smartshop.enums.UserRole;
+import org.example.smartshop.security.CurrentUser;
+import org.example.smartshop.security.RequireRole;
+import org.example.smartshop.services.IdempotencyService;
 import org.example.smartshop.services.PaymentService;
 import org.example.smartshop.utils.SessionUser;
 import org.springframework.http.HttpStatus;
@@ -21,52 +23,35 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
-    private SessionUser getCurrentUser(HttpSession session) {
-        SessionUser user = (SessionUser) session.getAttribute("CURRENT_USER");
-        if (user == null) {
-            throw new RuntimeException("Unauthorized");
-        }
-        return user;
-    }
-
+    @RequireRole(UserRole.ADMIN)
     @PostMapping
     public ResponseEntity<PaymentResponse> createPayment(@Valid @RequestBody PaymentRequest request,
-                                                         HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
-        PaymentResponse response = paymentService.createPayment(request);
+                                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                         @CurrentUser SessionUser user) {
+        PaymentResponse response = idempotencyService.execute("payments", user.getId(), idempotencyKey, request,
+                PaymentResponse.class, () -> paymentService.createPayment(request));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @RequireRole(UserRole.ADMIN)
     @PutMapping("/{id}")
     public ResponseEntity<PaymentResponse> updatePaymentStatus(@PathVariable Long id,
-                                                               @Valid @RequestBody UpdatePaymentStatusRequest request,
-                                                               HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
+                                                               @Valid @RequestBody UpdatePaymentStatusRequest request) {
         PaymentResponse response = paymentService.updatePaymentStatus(id, request);
         return ResponseEntity.ok(response);
     }
 
 
     @GetMapping("/order/{orderId}")
-    public ResponseEntity<List<PaymentResponse>> getPaymentsByOrderId(@PathVariable Long orderId,
-                                                                      HttpSession session) {
-        getCurrentUser(session);
+    public ResponseEntity<List<PaymentResponse>> getPaymentsByOrderId(@PathVariable Long orderId) {
         List<PaymentResponse> payments = paymentService.getPaymentsByOrderId(orderId);
         return ResponseEntity.ok(payments);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PaymentResponse> getPaymentById(@PathVariable Long id, HttpSession session) {
-        getCurrentUser(session);
+    public ResponseEntity<PaymentResponse> getPaymentById(@PathVariable Long id) {
         PaymentResponse payment = paymentService.getPaymentById(id);
         return ResponseEntity.ok(payment);
     }
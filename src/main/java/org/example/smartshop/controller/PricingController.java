@@ -0,0 +1,70 @@
+package org.example.smartshop.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.smartshop.dtos.request.PricingRuleRequest;
+import org.example.smartshop.dtos.request.PromoCodeRequest;
+import org.example.smartshop.dtos.response.PricingRuleResponse;
+import org.example.smartshop.dtos.response.PromoCodeResponse;
+import org.example.smartshop.enums.UserRole;
+import org.example.smartshop.security.RequireRole;
+import org.example.smartshop.services.PricingEngine;
+import org.example.smartshop.services.PricingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/pricing")
+@RequireRole(UserRole.ADMIN)
+@RequiredArgsConstructor
+public class PricingController {
+
+    private final PricingService pricingService;
+    private final PricingEngine pricingEngine;
+
+    @GetMapping("/rules")
+    public ResponseEntity<List<PricingRuleResponse>> getPricingRules() {
+        return ResponseEntity.ok(pricingService.getPricingRules());
+    }
+
+    @PostMapping("/rules")
+    public ResponseEntity<PricingRuleResponse> createPricingRule(@Valid @RequestBody PricingRuleRequest request) {
+        PricingRuleResponse response = pricingService.createPricingRule(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PutMapping("/rules/{id}")
+    public ResponseEntity<PricingRuleResponse> updatePricingRule(@PathVariable Long id,
+                                                                 @Valid @RequestBody PricingRuleRequest request) {
+        PricingRuleResponse response = pricingService.updatePricingRule(id, request);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/promo-codes")
+    public ResponseEntity<List<PromoCodeResponse>> getPromoCodes() {
+        return ResponseEntity.ok(pricingService.getPromoCodes());
+    }
+
+    @PostMapping("/promo-codes")
+    public ResponseEntity<PromoCodeResponse> createPromoCode(@Valid @RequestBody PromoCodeRequest request) {
+        PromoCodeResponse response = pricingService.createPromoCode(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PutMapping("/promo-codes/{id}")
+    public ResponseEntity<PromoCodeResponse> updatePromoCode(@PathVariable Long id,
+                                                             @Valid @RequestBody PromoCodeRequest request) {
+        PromoCodeResponse response = pricingService.updatePromoCode(id, request);
+        return ResponseEntity.ok(response);
+    }
+
+    // Picks up rules edited directly in the database without waiting for the periodic reload
+    @PostMapping("/reload")
+    public ResponseEntity<Void> reload() {
+        pricingEngine.reload();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,20 +1,24 @@
 package org.example.smartshop.controller;
 
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.smartshop.dtos.request.ProductFilterRequest;
 import org.example.smartshop.dtos.request.ProductRequest;
+import org.example.smartshop.dtos.response.ProductPageResponse;
 import org.example.smartshop.dtos.response.ProductResponse;
 import org.example.smartshop.enums.UserRole;
+import org.example.smartshop.security.RequireRole;
 import org.example.smartshop.services.ProductService;
-import org.example.smartshop.utils.SessionUser;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
@@ -22,53 +26,38 @@ public class ProductController {
 
     private final ProductService productService;
 
-    private SessionUser getCurrentUser(HttpSession session) {
-        SessionUser user = (SessionUser) session.getAttribute("CURRENT_USER");
-        if (user == null) {
-            throw new RuntimeException("Unauthorized");
-        }
-        return user;
-    }
+    private static final int MAX_PAGE_SIZE = 100;
 
+    @RequireRole(UserRole.ADMIN)
     @PostMapping
-    public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody ProductRequest request,
-                                                         HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
+    public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody ProductRequest request) {
         ProductResponse response = productService.createProduct(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductResponse>> searchProducts(@RequestParam String q,
+                                                                @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.searchProducts(q, size));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id, HttpSession session) {
-        getCurrentUser(session);
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
         ProductResponse response = productService.getProductById(id);
         return ResponseEntity.ok(response);
     }
 
+    @RequireRole(UserRole.ADMIN)
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponse> updateProduct(@PathVariable Long id,
-                                                         @Valid @RequestBody ProductRequest request,
-                                                         HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
+                                                         @Valid @RequestBody ProductRequest request) {
         ProductResponse response = productService.updateProduct(id, request);
         return ResponseEntity.ok(response);
     }
 
+    @RequireRole(UserRole.ADMIN)
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProduct(@PathVariable Long id, HttpSession session) {
-        SessionUser user = getCurrentUser(session);
-        if (user.getRole() != UserRole.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
+    public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
@@ -76,11 +65,14 @@ public class ProductController {
     @GetMapping
     public ResponseEntity<Page<ProductResponse>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size,
-            HttpSession session) {
-        getCurrentUser(session);
-        Pageable pageable = PageRequest.of(page, size);
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), Sort.by("id"));
         Page<ProductResponse> products = productService.getAllProducts(pageable);
         return ResponseEntity.ok(products);
     }
+
+    @GetMapping("/catalog")
+    public ResponseEntity<ProductPageResponse> browseProducts(@ModelAttribute ProductFilterRequest filter) {
+        return ResponseEntity.ok(productService.browseProducts(filter));
+    }
 }
@@ -0,0 +1,20 @@
+package org.example.smartshop.dtos.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchRequest {
+
+    @NotEmpty(message = "Orders cannot be empty")
+    @Size(max = 500, message = "A batch cannot contain more than 500 orders")
+    // Entries are validated one by one in OrderServiceImpl.createOrders
+    private List<OrderRequest> orders;
+}
@@ -0,0 +1,31 @@
+package org.example.smartshop.dtos.request;
+
+import lombok.*;
+import org.example.smartshop.enums.OrderStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderFilterRequest {
+
+    private OrderStatus status;
+
+    private Long clientId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private String codePromo;
+
+    private String cursor;
+
+    private Integer size;
+}
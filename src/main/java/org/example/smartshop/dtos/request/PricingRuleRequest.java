@@ -0,0 +1,30 @@
+package org.example.smartshop.dtos.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.example.smartshop.enums.CustomerTier;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PricingRuleRequest {
+
+    @NotNull(message = "Tier is required")
+    private CustomerTier tier;
+
+    @NotNull(message = "Min sous total is required")
+    @Min(value = 0, message = "Min sous total must be positive")
+    private Double minSousTotal;
+
+    @NotNull(message = "Taux remise is required")
+    @DecimalMin(value = "0.0", message = "Taux remise must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Taux remise must be between 0 and 1")
+    private Double tauxRemise;
+
+    private Boolean active;
+}
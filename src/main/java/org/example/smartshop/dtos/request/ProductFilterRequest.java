@@ -0,0 +1,26 @@
+package org.example.smartshop.dtos.request;
+
+import lombok.*;
+import org.example.smartshop.enums.ProductSort;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFilterRequest {
+
+    private Double minPrix;
+
+    private Double maxPrix;
+
+    private Boolean inStock;
+
+    private String nom;
+
+    private ProductSort sort;
+
+    private String cursor;
+
+    private Integer size;
+}
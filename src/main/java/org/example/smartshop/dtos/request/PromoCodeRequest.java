@@ -0,0 +1,40 @@
+package org.example.smartshop.dtos.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PromoCodeRequest {
+
+    @NotBlank(message = "Code is required")
+    @Pattern(regexp = "PROMO-[A-Z0-9]{4}", message = "Code promo must match format PROMO-XXXX")
+    private String code;
+
+    @NotNull(message = "Taux remise is required")
+    @DecimalMin(value = "0.0", message = "Taux remise must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Taux remise must be between 0 and 1")
+    private Double tauxRemise;
+
+    private LocalDateTime validFrom;
+
+    private LocalDateTime validUntil;
+
+    @Min(value = 1, message = "Max usages must be at least 1")
+    private Integer maxUsages;
+
+    @Min(value = 1, message = "Max usages per client must be at least 1")
+    private Integer maxUsagesPerClient;
+
+    private Boolean active;
+}
@@ -0,0 +1,30 @@
+package org.example.smartshop.dtos.response;
+
+import lombok.*;
+import org.example.smartshop.enums.OrderBatchStatus;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchResponse {
+
+    private Integer created;
+    private Integer rejected;
+    private List<OrderBatchResult> results;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OrderBatchResult {
+        private Integer index;
+        private OrderBatchStatus status;
+        private String reason;
+        private OrderResponse order;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.smartshop.dtos.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageResponse {
+
+    private List<OrderResponse> items;
+    private Integer size;
+    private String nextCursor;
+}
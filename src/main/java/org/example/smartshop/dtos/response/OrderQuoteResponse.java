@@ -0,0 +1,35 @@
+package org.example.smartshop.dtos.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderQuoteResponse {
+
+    private Long clientId;
+    private Double sousTotal;
+    private Double montantRemise;
+    private Double montantHtApresRemise;
+    private Double tva;
+    private Double totalTtc;
+    private String codePromo;
+    private List<OrderQuoteLine> items;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OrderQuoteLine {
+        private Long productId;
+        private String productNom;
+        private Integer quantite;
+        private Double prixUnitaire;
+        private Double totalLigne;
+    }
+}
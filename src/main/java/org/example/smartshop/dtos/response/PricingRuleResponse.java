@@ -0,0 +1,18 @@
+package org.example.smartshop.dtos.response;
+
+import lombok.*;
+import org.example.smartshop.enums.CustomerTier;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PricingRuleResponse {
+
+    private Long id;
+    private CustomerTier tier;
+    private Double minSousTotal;
+    private Double tauxRemise;
+    private Boolean active;
+}
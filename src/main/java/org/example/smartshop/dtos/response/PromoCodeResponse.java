@@ -0,0 +1,22 @@
+package org.example.smartshop.dtos.response;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PromoCodeResponse {
+
+    private Long id;
+    private String code;
+    private Double tauxRemise;
+    private LocalDateTime validFrom;
+    private LocalDateTime validUntil;
+    private Integer maxUsages;
+    private Integer maxUsagesPerClient;
+    private Boolean active;
+}
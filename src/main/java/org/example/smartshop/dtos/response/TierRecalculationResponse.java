@@ -0,0 +1,30 @@
+package org.example.smartshop.dtos.response;
+
+import lombok.*;
+import org.example.smartshop.enums.CustomerTier;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TierRecalculationResponse {
+
+    private Boolean dryRun;
+    private Long scanned;
+    private Long moved;
+    private List<TierMovement> movements;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TierMovement {
+        private CustomerTier from;
+        private CustomerTier to;
+        private Long count;
+    }
+}
@@ -3,6 +3,8 @@ package org.example.smartshop.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.example.smartshop.enums.CustomerTier;
+import org.example.smartshop.utils.Money;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -21,6 +23,11 @@ public class Client {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     @Column(nullable = false)
     private String nom;
 
@@ -42,15 +49,15 @@ public class Client {
     private Integer totalOrders = 0;
 
 
-    @Column(nullable = false)
+    @Column(nullable = false, precision = 19, scale = 2)
     @Builder.Default
-    private Double totalSpent = 0.0;
+    private Money totalSpent = Money.ZERO;
 
     private LocalDateTime firstOrderDate;
 
     private LocalDateTime lastOrderDate;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -0,0 +1,31 @@
+package org.example.smartshop.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.smartshop.utils.Money;
+
+import java.time.LocalDateTime;
+
+// Outbox row for one confirmed order, folded into the client's statistics by ClientStatsAggregator
+@Entity
+@Table(name = "client_stats_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientStatsEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long clientId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money montant;
+
+    @Column(nullable = false)
+    private LocalDateTime orderDate;
+}
@@ -3,13 +3,20 @@ package org.example.smartshop.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.example.smartshop.enums.OrderStatus;
+import org.example.smartshop.utils.Money;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_date_creation_id", columnList = "date_creation, id"),
+        @Index(name = "idx_orders_status_date_creation", columnList = "status, date_creation, id"),
+        @Index(name = "idx_orders_client_date_creation", columnList = "client_id, date_creation, id"),
+        @Index(name = "idx_orders_code_promo_date_creation", columnList = "code_promo, date_creation, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,10 +25,16 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id", nullable = false)
     private Client client;
 
@@ -36,25 +49,37 @@ public class Order {
     @Column(nullable = false)
     private LocalDateTime dateCreation;
 
-    @Column(nullable = false)
-    private Double sousTotal;
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money sousTotal;
 
-    @Column(nullable = false)
+    @Column(nullable = false, precision = 19, scale = 2)
     @Builder.Default
-    private Double montantRemise = 0.0;
+    private Money montantRemise = Money.ZERO;
 
-    @Column(nullable = false)
-    private Double montantHtApresRemise;
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money montantHtApresRemise;
 
-    @Column(nullable = false)
-    private Double tva;
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money tva;
 
-    @Column(nullable = false)
-    private Double totalTtc;
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money totalTtc;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    @Builder.Default
+    private Money montantRestant = Money.ZERO;
+
+    // Running total of ENCAISSE payments, moved by deltas on each payment status transition
+    @Column(nullable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Money montantEncaisse = Money.ZERO;
 
+    // Last numeroPaiement handed out, bumped while the order row is locked
     @Column(nullable = false)
+    @ColumnDefault("0")
     @Builder.Default
-    private Double montantRestant = 0.0;
+    private Integer dernierNumeroPaiement = 0;
 
     private String codePromo;
 
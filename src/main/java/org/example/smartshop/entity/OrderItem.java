@@ -2,9 +2,12 @@ package org.example.smartshop.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.example.smartshop.utils.Money;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order", columnList = "order_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,23 +16,24 @@ import lombok.*;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
     @Column(nullable = false)
     private Integer quantite;
 
-    @Column(nullable = false)
-    private Double prixUnitaire;
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money prixUnitaire;
 
-    @Column(nullable = false)
-    private Double totalLigne;
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money totalLigne;
 }
@@ -4,12 +4,15 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.example.smartshop.enums.PaymentMethod;
 import org.example.smartshop.enums.PaymentStatus;
+import org.example.smartshop.utils.Money;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payments_order_numero", columnNames = {"order_id", "numero_paiement"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,18 +21,19 @@ import java.time.LocalDateTime;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
     @Column(nullable = false)
     private Integer numeroPaiement;
 
-    @Column(nullable = false)
-    private Double montant;
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money montant;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -0,0 +1,36 @@
+package org.example.smartshop.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.smartshop.enums.CustomerTier;
+import org.example.smartshop.utils.Money;
+
+@Entity
+@Table(name = "pricing_rules", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_pricing_rules_tier_seuil", columnNames = {"tier", "min_sous_total"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PricingRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CustomerTier tier;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money minSousTotal;
+
+    @Column(nullable = false)
+    private Double tauxRemise;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+}
@@ -2,6 +2,8 @@ package org.example.smartshop.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.example.smartshop.utils.Money;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,14 +21,19 @@ public class Product {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     @Column(nullable = false)
     private String nom;
 
     private String description;
 
 
-    @Column(nullable = false)
-    private Double prixUnitaire;
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money prixUnitaire;
 
     @Column(nullable = false)
     @Builder.Default
@@ -0,0 +1,40 @@
+package org.example.smartshop.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "promo_codes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PromoCode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String code;
+
+    @Column(nullable = false)
+    private Double tauxRemise;
+
+    // Open-ended on either side when null
+    private LocalDateTime validFrom;
+
+    private LocalDateTime validUntil;
+
+    // Unlimited when null
+    private Integer maxUsages;
+
+    private Integer maxUsagesPerClient;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+}
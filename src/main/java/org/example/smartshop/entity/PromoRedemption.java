@@ -0,0 +1,37 @@
+package org.example.smartshop.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One use of a promo code by an order, written in batches by PromoCodeServiceImpl
+@Entity
+@Table(name = "promo_redemptions", indexes = {
+        @Index(name = "idx_promo_redemptions_code_client", columnList = "promo_code_id, client_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_promo_redemptions_order", columnNames = "order_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PromoRedemption {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long promoCodeId;
+
+    @Column(nullable = false)
+    private Long clientId;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private LocalDateTime redeemedAt;
+}
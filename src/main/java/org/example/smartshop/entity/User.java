@@ -2,7 +2,6 @@ package org.example.smartshop.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.example.smartshop.entity.Client;
 import org.example.smartshop.enums.UserRole;
 
 @Entity
@@ -26,8 +25,5 @@ public class User {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private UserRole role;
-
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
-    private Client client;
 }
 
@@ -0,0 +1,6 @@
+package org.example.smartshop.enums;
+
+public enum ExportFormat {
+    NDJSON,
+    CSV
+}
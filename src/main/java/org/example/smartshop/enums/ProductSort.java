@@ -0,0 +1,8 @@
+package org.example.smartshop.enums;
+
+public enum ProductSort {
+    ID,
+    PRIX_ASC,
+    PRIX_DESC,
+    NOM
+}
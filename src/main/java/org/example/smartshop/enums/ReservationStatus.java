@@ -0,0 +1,7 @@
+package org.example.smartshop.enums;
+
+public enum ReservationStatus {
+    ACTIVE,
+    CONFIRMED,
+    RELEASED
+}
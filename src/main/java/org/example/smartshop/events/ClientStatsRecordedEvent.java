@@ -0,0 +1,4 @@
+package org.example.smartshop.events;
+
+public record ClientStatsRecordedEvent(Long clientId) {
+}
@@ -0,0 +1,4 @@
+package org.example.smartshop.events;
+
+public record ProductChangedEvent(Long productId) {
+}
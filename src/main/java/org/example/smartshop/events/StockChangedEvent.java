@@ -0,0 +1,6 @@
+package org.example.smartshop.events;
+
+import java.util.Collection;
+
+public record StockChangedEvent(Collection<Long> productIds) {
+}
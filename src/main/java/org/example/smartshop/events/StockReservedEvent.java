@@ -0,0 +1,6 @@
+package org.example.smartshop.events;
+
+import java.time.LocalDateTime;
+
+public record StockReservedEvent(Long orderId, LocalDateTime expiresAt) {
+}
@@ -5,7 +5,7 @@ import org.example.smartshop.dtos.response.ClientResponse;
 import org.example.smartshop.entity.Client;
 import org.mapstruct.*;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = MoneyMapper.class)
 public interface ClientMapper {
     ClientResponse toResponse(Client client);
 
@@ -17,6 +17,7 @@ public interface ClientMapper {
     @Mapping(target = "lastOrderDate", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "orders", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Client toEntity(ClientRequest request);
 
 
@@ -28,6 +29,7 @@ public interface ClientMapper {
     @Mapping(target = "lastOrderDate", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "orders", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntity(ClientRequest request, @MappingTarget Client client);
 
 }
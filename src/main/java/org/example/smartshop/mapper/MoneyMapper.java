@@ -0,0 +1,18 @@
+package org.example.smartshop.mapper;
+
+import org.example.smartshop.utils.Money;
+
+// Amounts stay Double in the API; MapStruct picks these up wherever a mapper declares uses = MoneyMapper.class
+public final class MoneyMapper {
+
+    private MoneyMapper() {
+    }
+
+    public static Double toDouble(Money money) {
+        return money == null ? null : money.toDouble();
+    }
+
+    public static Money toMoney(Double amount) {
+        return amount == null ? null : Money.of(amount);
+    }
+}
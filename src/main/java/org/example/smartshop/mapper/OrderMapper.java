@@ -4,10 +4,11 @@ package org.example.smartshop.mapper;
 import org.example.smartshop.dtos.response.OrderResponse;
 import org.example.smartshop.entity.Order;
 import org.example.smartshop.entity.OrderItem;
+import org.example.smartshop.repositories.OrderReadRepository;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = MoneyMapper.class)
 public interface OrderMapper {
     @Mapping(source="client.id", target = "clientId")
     @Mapping(source = "client.nom", target = "clientNom")
@@ -18,4 +19,10 @@ public interface OrderMapper {
     @Mapping(source = "product.nom", target = "productNom")
     OrderResponse.OrderItemResponse toItemResponse(OrderItem orderItem);
 
+    // Column projections of the read repository; items are attached by a second query
+    @Mapping(target = "items", ignore = true)
+    OrderResponse toResponse(OrderReadRepository.OrderRow row);
+
+    OrderResponse.OrderItemResponse toItemResponse(OrderReadRepository.OrderItemRow row);
+
 }
\ No newline at end of file
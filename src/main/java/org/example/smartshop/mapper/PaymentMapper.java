@@ -5,7 +5,7 @@ import org.example.smartshop.dtos.response.PaymentResponse;
 import org.example.smartshop.entity.Payment;
 import org.mapstruct.*;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = MoneyMapper.class)
 public interface PaymentMapper {
     @Mapping(source = "order.id", target = "orderId")
     PaymentResponse toResponse(Payment payment);
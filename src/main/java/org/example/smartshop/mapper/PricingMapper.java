@@ -0,0 +1,25 @@
+package org.example.smartshop.mapper;
+
+import org.example.smartshop.dtos.request.PricingRuleRequest;
+import org.example.smartshop.dtos.request.PromoCodeRequest;
+import org.example.smartshop.dtos.response.PricingRuleResponse;
+import org.example.smartshop.dtos.response.PromoCodeResponse;
+import org.example.smartshop.entity.PricingRule;
+import org.example.smartshop.entity.PromoCode;
+import org.mapstruct.*;
+
+@Mapper(componentModel = "spring", uses = MoneyMapper.class)
+public interface PricingMapper {
+    PricingRuleResponse toResponse(PricingRule rule);
+
+    PromoCodeResponse toResponse(PromoCode promoCode);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "active", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    void updateEntity(PricingRuleRequest request, @MappingTarget PricingRule rule);
+
+    // Validity window and caps are replaced as sent, so a null clears them
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "active", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    void updateEntity(PromoCodeRequest request, @MappingTarget PromoCode promoCode);
+}
@@ -5,18 +5,20 @@ import org.example.smartshop.dtos.response.ProductResponse;
 import org.example.smartshop.entity.Product;
 import org.mapstruct.*;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = MoneyMapper.class)
 public interface ProductMapper {
     ProductResponse toResponse(Product product);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "deleted", ignore = true)
     @Mapping(target = "orderItems", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Product toEntity(ProductRequest request);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "deleted", ignore = true)
     @Mapping(target = "orderItems", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntity(ProductRequest request, @MappingTarget Product product);
 }
 
@@ -2,14 +2,18 @@ package org.example.smartshop.repositories;
 
 
 import org.example.smartshop.entity.Client;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends JpaRepository<Client, Long>, ClientStatsRepository {
     Optional<Client> findByEmail(String email);
     boolean existsByEmail(String email);
     Optional<Client> findByUserId(Long userId);
+
+    @EntityGraph(attributePaths = "user")
+    Optional<Client> findWithUserById(Long id);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package org.example.smartshop.repositories;
+
+import org.example.smartshop.entity.ClientStatsEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ClientStatsEntryRepository extends JpaRepository<ClientStatsEntry, Long> {
+}
@@ -0,0 +1,21 @@
+package org.example.smartshop.repositories;
+
+import org.example.smartshop.config.LoyaltyProperties;
+import org.example.smartshop.enums.CustomerTier;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ClientStatsRepository {
+    int applyStatsOutbox(int limit, Map<CustomerTier, LoyaltyProperties.Threshold> thresholds);
+
+    ClientChunk findChunk(Long afterId, int size);
+    List<TierMovement> countTierMovements(Long afterId, Long upToId, Map<CustomerTier, LoyaltyProperties.Threshold> thresholds);
+    int applyTiers(Long afterId, Long upToId, Map<CustomerTier, LoyaltyProperties.Threshold> thresholds);
+
+    record ClientChunk(Long lastId, int size) {
+    }
+
+    record TierMovement(CustomerTier from, CustomerTier to, long count) {
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.smartshop.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.example.smartshop.config.LoyaltyProperties;
+import org.example.smartshop.enums.CustomerTier;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ClientStatsRepositoryImpl implements ClientStatsRepository {
+
+    private static final String CHUNK_SQL =
+            "SELECT MAX(id) AS last_id, COUNT(*) AS chunk_size " +
+            "FROM (SELECT id FROM clients WHERE id > ? ORDER BY id LIMIT ?) chunk";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int applyStatsOutbox(int limit, Map<CustomerTier, LoyaltyProperties.Threshold> thresholds) {
+        // Drains a batch of outbox rows, sums them per client and applies each sum, tier included, in one statement.
+        // SKIP LOCKED lets several nodes drain concurrently without applying a row twice.
+        String sql = "WITH drained AS (" +
+                "DELETE FROM client_stats_outbox WHERE id IN (" +
+                "SELECT id FROM client_stats_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                "RETURNING client_id, montant, order_date), " +
+                "deltas AS (" +
+                "SELECT client_id, COUNT(*) AS orders, SUM(montant) AS spent, " +
+                "MIN(order_date) AS first_date, MAX(order_date) AS last_date " +
+                "FROM drained GROUP BY client_id) " +
+                "UPDATE clients c SET " +
+                "total_orders = c.total_orders + d.orders, " +
+                "total_spent = ROUND(CAST(c.total_spent + d.spent AS numeric), 2), " +
+                "first_order_date = LEAST(c.first_order_date, d.first_date), " +
+                "last_order_date = GREATEST(c.last_order_date, d.last_date), " +
+                "tier = " + tierCase(thresholds, "c.total_orders + d.orders", "c.total_spent + d.spent") + ", " +
+                "version = c.version + 1 " +
+                "FROM deltas d WHERE c.id = d.client_id " +
+                "RETURNING d.orders";
+
+        return jdbcTemplate.queryForList(sql, Integer.class, limit).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    @Override
+    public ClientChunk findChunk(Long afterId, int size) {
+        return jdbcTemplate.queryForObject(CHUNK_SQL, (rs, rowNum) -> new ClientChunk(
+                rs.getObject("last_id", Long.class), rs.getInt("chunk_size")), afterId, size);
+    }
+
+    @Override
+    public List<TierMovement> countTierMovements(Long afterId, Long upToId,
+                                                 Map<CustomerTier, LoyaltyProperties.Threshold> thresholds) {
+        String sql = "SELECT tier, target, COUNT(*) AS moved FROM (" +
+                "SELECT tier, " + tierCase(thresholds, "total_orders", "total_spent") + " AS target FROM clients " +
+                "WHERE id > ? AND id <= ?) chunk " +
+                "WHERE tier <> target GROUP BY tier, target";
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new TierMovement(
+                CustomerTier.valueOf(rs.getString("tier")),
+                CustomerTier.valueOf(rs.getString("target")),
+                rs.getLong("moved")), afterId, upToId);
+    }
+
+    @Override
+    public int applyTiers(Long afterId, Long upToId, Map<CustomerTier, LoyaltyProperties.Threshold> thresholds) {
+        String target = tierCase(thresholds, "total_orders", "total_spent");
+        String sql = "UPDATE clients SET tier = " + target + ", version = version + 1 " +
+                "WHERE id > ? AND id <= ? AND tier <> " + target;
+
+        return jdbcTemplate.update(sql, afterId, upToId);
+    }
+
+    // SQL mirror of LoyaltyProperties.tierFor; thresholds are numbers, so inlining them is safe
+    private static String tierCase(Map<CustomerTier, LoyaltyProperties.Threshold> thresholds,
+                                   String orders, String spent) {
+        StringBuilder sql = new StringBuilder("CASE");
+        thresholds.forEach((tier, threshold) -> sql
+                .append(" WHEN ").append(orders).append(" >= ").append(threshold.getMinOrders())
+                .append(" OR ").append(spent).append(" >= ").append(threshold.getMinSpent())
+                .append(" THEN '").append(tier.name()).append("'"));
+        return sql.append(" ELSE '").append(CustomerTier.BASIC.name()).append("' END").toString();
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.smartshop.repositories;
+
+import org.example.smartshop.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByScopeAndIdempotencyKeyAndCreatedAtAfter(String scope, String idempotencyKey,
+                                                                              LocalDateTime createdAfter);
+
+    Optional<IdempotencyRecord> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.scope = :scope AND r.idempotencyKey = :idempotencyKey "
+            + "AND r.createdAt < :cutoff")
+    int deleteExpired(String scope, String idempotencyKey, LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteByCreatedAtBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,24 @@
+package org.example.smartshop.repositories;
+
+import org.example.smartshop.dtos.response.OrderResponse;
+import org.example.smartshop.entity.Order;
+import org.example.smartshop.enums.OrderStatus;
+import org.example.smartshop.utils.Money;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderReadRepository {
+    List<OrderResponse> findOrderResponses(Specification<Order> specification, Sort sort, Integer limit);
+
+    record OrderRow(Long id, Long clientId, String clientNom, LocalDateTime dateCreation, Money sousTotal,
+                    Money montantRemise, Money montantHtApresRemise, Money tva, Money totalTtc, Money montantRestant,
+                    String codePromo, OrderStatus status) {
+    }
+
+    record OrderItemRow(Long orderId, Long id, Long productId, String productNom, Integer quantite,
+                        Money prixUnitaire, Money totalLigne) {
+    }
+}
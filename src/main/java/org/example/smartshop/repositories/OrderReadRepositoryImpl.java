@@ -0,0 +1,113 @@
+package org.example.smartshop.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.example.smartshop.dtos.response.OrderResponse;
+import org.example.smartshop.entity.Client;
+import org.example.smartshop.entity.Order;
+import org.example.smartshop.entity.OrderItem;
+import org.example.smartshop.entity.Product;
+import org.example.smartshop.mapper.OrderMapper;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Builds OrderResponse pages from two column queries, never loading Order, Client or Product entities
+@RequiredArgsConstructor
+public class OrderReadRepositoryImpl implements OrderReadRepository {
+
+    // Keeps the IN list of an unbounded client history within what drivers and planners handle well
+    private static final int ITEMS_CHUNK_SIZE = 1000;
+
+    private final EntityManager entityManager;
+    private final OrderMapper orderMapper;
+
+    @Override
+    public List<OrderResponse> findOrderResponses(Specification<Order> specification, Sort sort, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderRow> query = cb.createQuery(OrderRow.class);
+        Root<Order> order = query.from(Order.class);
+        Join<Order, Client> client = order.join("client");
+
+        query.select(cb.construct(OrderRow.class,
+                order.get("id"),
+                client.get("id"),
+                client.get("nom"),
+                order.get("dateCreation"),
+                order.get("sousTotal"),
+                order.get("montantRemise"),
+                order.get("montantHtApresRemise"),
+                order.get("tva"),
+                order.get("totalTtc"),
+                order.get("montantRestant"),
+                order.get("codePromo"),
+                order.get("status")));
+
+        Predicate predicate = specification.toPredicate(order, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, order, cb));
+
+        TypedQuery<OrderRow> typedQuery = entityManager.createQuery(query);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        List<OrderResponse> orders = typedQuery.getResultList().stream()
+                .map(orderMapper::toResponse)
+                .toList();
+        attachItems(orders);
+        return orders;
+    }
+
+    private void attachItems(List<OrderResponse> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        Map<Long, OrderResponse> byId = new LinkedHashMap<>();
+        for (OrderResponse order : orders) {
+            order.setItems(new ArrayList<>());
+            byId.put(order.getId(), order);
+        }
+
+        List<Long> orderIds = new ArrayList<>(byId.keySet());
+        for (int from = 0; from < orderIds.size(); from += ITEMS_CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + ITEMS_CHUNK_SIZE, orderIds.size()));
+            findItemRows(chunk).forEach(row ->
+                    byId.get(row.orderId()).getItems().add(orderMapper.toItemResponse(row)));
+        }
+    }
+
+    private List<OrderItemRow> findItemRows(List<Long> orderIds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderItemRow> query = cb.createQuery(OrderItemRow.class);
+        Root<OrderItem> item = query.from(OrderItem.class);
+        Join<OrderItem, Product> product = item.join("product");
+
+        query.select(cb.construct(OrderItemRow.class,
+                        item.get("order").get("id"),
+                        item.get("id"),
+                        product.get("id"),
+                        product.get("nom"),
+                        item.get("quantite"),
+                        item.get("prixUnitaire"),
+                        item.get("totalLigne")))
+                .where(item.get("order").get("id").in(orderIds))
+                .orderBy(cb.asc(item.get("id")));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -1,15 +1,53 @@
 package org.example.smartshop.repositories;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.example.smartshop.entity.Order;
 import org.example.smartshop.enums.OrderStatus;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>,
+        OrderReadRepository {
     List<Order> findByClientIdOrderByDateCreationDesc(Long clientId);
     List<Order> findByClientIdAndStatus(Long clientId, OrderStatus status);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Order> findForUpdateById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Order> findForUpdateByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Pending orders with no payment recorded, locked so a payment cannot land while they are being expired
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.status = :status AND o.dernierNumeroPaiement = 0")
+    List<Order> findUnpaidForUpdateByIdIn(Collection<Long> ids, OrderStatus status);
+
+    @EntityGraph(attributePaths = {"client", "orderItems", "orderItems.product"})
+    Optional<Order> findWithItemsById(Long id);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.version = o.version + 1 WHERE o.id IN :ids AND o.status = :from")
+    int updateStatusByIdIn(Collection<Long> ids, OrderStatus from, OrderStatus to);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o.id FROM Order o ORDER BY o.id")
+    Stream<Long> streamAllIds();
 }
\ No newline at end of file
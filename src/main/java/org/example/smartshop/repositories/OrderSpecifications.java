@@ -0,0 +1,48 @@
+package org.example.smartshop.repositories;
+
+import org.example.smartshop.entity.Order;
+import org.example.smartshop.enums.OrderStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> hasIdIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Order> hasStatus(OrderStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Order> hasClient(Long clientId) {
+        return (root, query, cb) -> cb.equal(root.get("client").get("id"), clientId);
+    }
+
+    public static Specification<Order> hasCodePromo(String codePromo) {
+        return (root, query, cb) -> cb.equal(root.get("codePromo"), codePromo);
+    }
+
+    public static Specification<Order> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dateCreation"), from);
+    }
+
+    public static Specification<Order> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("dateCreation"), to);
+    }
+
+    // Keyset predicate for (dateCreation, id) DESC: rows strictly after the cursor. The OR alone is not sargable,
+    // the redundant dateCreation <= bound gives the planner an index range to start from
+    public static Specification<Order> after(LocalDateTime dateCreation, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("dateCreation"), dateCreation),
+                cb.or(
+                        cb.lessThan(root.get("dateCreation"), dateCreation),
+                        cb.and(cb.equal(root.get("dateCreation"), dateCreation), cb.lessThan(root.get("id"), id))));
+    }
+}
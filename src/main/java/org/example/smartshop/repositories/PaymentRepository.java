@@ -1,16 +1,32 @@
 package org.example.smartshop.repositories;
 
+import jakarta.persistence.LockModeType;
 import org.example.smartshop.entity.Payment;
+import org.example.smartshop.enums.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByOrderIdOrderByNumeroPaiementAsc(Long orderId);
 
-    @Query("SELECT COALESCE(MAX(p.numeroPaiement), 0) FROM Payment p WHERE p.order.id = :orderId")
-    Integer findMaxNumeroPaiementByOrderId(Long orderId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Payment> findForUpdateById(Long id);
+
+    @Query("SELECT p.order.id AS orderId, SUM(p.montant) AS total FROM Payment p " +
+            "WHERE p.order.id IN :orderIds AND p.status = :status GROUP BY p.order.id")
+    List<PaymentTotal> sumAmountsByOrderIdInAndStatus(Collection<Long> orderIds, PaymentStatus status);
+
+    interface PaymentTotal {
+        Long getOrderId();
+        // SUM bypasses the Money converter
+        BigDecimal getTotal();
+    }
 }
@@ -0,0 +1,16 @@
+package org.example.smartshop.repositories;
+
+import org.example.smartshop.entity.PricingRule;
+import org.example.smartshop.enums.CustomerTier;
+import org.example.smartshop.utils.Money;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PricingRuleRepository extends JpaRepository<PricingRule, Long> {
+    List<PricingRule> findByActiveTrue();
+    boolean existsByTierAndMinSousTotal(CustomerTier tier, Money minSousTotal);
+    boolean existsByTierAndMinSousTotalAndIdNot(CustomerTier tier, Money minSousTotal, Long id);
+}
@@ -4,10 +4,48 @@ import org.example.smartshop.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductStockRepository {
     Page<Product> findByDeletedFalse(Pageable pageable);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.stock >= :quantity")
+    int decrementStockIfAvailable(Long id, Integer quantity);
+
+    @Query("SELECT p.stock FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockById(Long id);
+
+    @Query("SELECT p.id AS id, p.stock AS stock FROM Product p WHERE p.id IN :ids")
+    List<ProductStock> findStocksByIdIn(Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.nom AS nom, p.description AS description FROM Product p " +
+            "WHERE p.deleted = false AND p.id > :afterId ORDER BY p.id")
+    List<ProductSearchDocument> findSearchDocumentsAfter(Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.nom AS nom, p.description AS description FROM Product p " +
+            "WHERE p.id = :id AND p.deleted = false")
+    Optional<ProductSearchDocument> findSearchDocumentById(Long id);
+
+    interface ProductStock {
+        Long getId();
+        Integer getStock();
+    }
+
+    interface ProductSearchDocument {
+        Long getId();
+        String getNom();
+        String getDescription();
+    }
+}
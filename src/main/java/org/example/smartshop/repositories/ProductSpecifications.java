@@ -0,0 +1,62 @@
+package org.example.smartshop.repositories;
+
+import org.example.smartshop.entity.Product;
+import org.example.smartshop.utils.Money;
+import org.example.smartshop.utils.ProductCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> notDeleted() {
+        return (root, query, cb) -> cb.isFalse(root.get("deleted"));
+    }
+
+    public static Specification<Product> prixFrom(Money min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("prixUnitaire"), min);
+    }
+
+    public static Specification<Product> prixTo(Money max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("prixUnitaire"), max);
+    }
+
+    public static Specification<Product> inStock() {
+        return (root, query, cb) -> cb.greaterThan(root.get("stock"), 0);
+    }
+
+    // Case-insensitive, served by the lower(nom) text_pattern_ops index
+    public static Specification<Product> nomStartsWith(String prefix) {
+        String pattern = prefix.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("nom")), pattern, '\\');
+    }
+
+    // Keyset predicate matching the sort: rows strictly after the cursor, id breaking ties. The redundant bound on the
+    // leading column lets the planner start the (prix_unitaire, id) or (nom, id) index range at the cursor
+    public static Specification<Product> after(ProductCursor cursor) {
+        return (root, query, cb) -> switch (cursor.sort()) {
+            case ID -> cb.greaterThan(root.get("id"), cursor.id());
+            case PRIX_ASC -> cb.and(
+                    cb.greaterThanOrEqualTo(root.get("prixUnitaire"), cursor.prix()),
+                    cb.or(
+                            cb.greaterThan(root.get("prixUnitaire"), cursor.prix()),
+                            cb.and(cb.equal(root.get("prixUnitaire"), cursor.prix()), cb.greaterThan(root.get("id"), cursor.id()))));
+            case PRIX_DESC -> cb.and(
+                    cb.lessThanOrEqualTo(root.get("prixUnitaire"), cursor.prix()),
+                    cb.or(
+                            cb.lessThan(root.get("prixUnitaire"), cursor.prix()),
+                            cb.and(cb.equal(root.get("prixUnitaire"), cursor.prix()), cb.lessThan(root.get("id"), cursor.id()))));
+            case NOM -> cb.and(
+                    cb.greaterThanOrEqualTo(root.get("nom"), cursor.value()),
+                    cb.or(
+                            cb.greaterThan(root.get("nom"), cursor.value()),
+                            cb.and(cb.equal(root.get("nom"), cursor.value()), cb.greaterThan(root.get("id"), cursor.id()))));
+        };
+    }
+}
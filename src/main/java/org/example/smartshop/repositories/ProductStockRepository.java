@@ -0,0 +1,10 @@
+package org.example.smartshop.repositories;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductStockRepository {
+    List<Long> decrementStocks(Map<Long, Integer> quantities);
+    void incrementStocks(Map<Long, Integer> quantities);
+    void subtractStocks(Map<Long, Integer> quantities);
+}
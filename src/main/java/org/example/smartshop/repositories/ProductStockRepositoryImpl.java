@@ -0,0 +1,67 @@
+package org.example.smartshop.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RequiredArgsConstructor
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE products SET stock = stock - ?, version = version + 1 WHERE id = ? AND stock >= ?";
+    private static final String INCREMENT_SQL =
+            "UPDATE products SET stock = stock + ?, version = version + 1 WHERE id = ?";
+    private static final String SUBTRACT_SQL =
+            "UPDATE products SET stock = stock - ?, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> decrementStocks(Map<Long, Integer> quantities) {
+        // Sorted by id so concurrent orders lock product rows in the same order
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setLong(2, line.getKey());
+            ps.setInt(3, line.getValue());
+        });
+
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (counts[0][i] == 0) {
+                failed.add(lines.get(i).getKey());
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public void incrementStocks(Map<Long, Integer> quantities) {
+        applyUnconditionally(INCREMENT_SQL, quantities);
+    }
+
+    @Override
+    public void subtractStocks(Map<Long, Integer> quantities) {
+        applyUnconditionally(SUBTRACT_SQL, quantities);
+    }
+
+    private void applyUnconditionally(String sql, Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(sql, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setLong(2, line.getKey());
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.smartshop.repositories;
+
+import org.example.smartshop.entity.PromoCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PromoCodeRepository extends JpaRepository<PromoCode, Long> {
+    List<PromoCode> findByActiveTrue();
+    boolean existsByCode(String code);
+    boolean existsByCodeAndIdNot(String code, Long id);
+}
@@ -0,0 +1,10 @@
+package org.example.smartshop.repositories;
+
+import org.example.smartshop.entity.PromoRedemption;
+
+import java.util.List;
+
+public interface PromoRedemptionBatchRepository {
+    void insertAll(List<PromoRedemption> redemptions);
+    int backfillFromOrders();
+}
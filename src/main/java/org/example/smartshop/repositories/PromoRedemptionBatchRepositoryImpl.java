@@ -0,0 +1,40 @@
+package org.example.smartshop.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.example.smartshop.entity.PromoRedemption;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PromoRedemptionBatchRepositoryImpl implements PromoRedemptionBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO promo_redemptions (promo_code_id, client_id, order_id, redeemed_at) VALUES (?, ?, ?, ?)";
+
+    // Orders carry their promo code in the same transaction, so any redemption lost before a flush is rebuilt from them
+    private static final String BACKFILL_SQL =
+            "INSERT INTO promo_redemptions (promo_code_id, client_id, order_id, redeemed_at) " +
+            "SELECT p.id, o.client_id, o.id, o.date_creation FROM orders o " +
+            "JOIN promo_codes p ON p.code = o.code_promo " +
+            "WHERE NOT EXISTS (SELECT 1 FROM promo_redemptions r WHERE r.order_id = o.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<PromoRedemption> redemptions) {
+        // IDENTITY ids keep Hibernate from batching these inserts, plain JDBC does
+        jdbcTemplate.batchUpdate(INSERT_SQL, redemptions, redemptions.size(), (ps, redemption) -> {
+            ps.setLong(1, redemption.getPromoCodeId());
+            ps.setLong(2, redemption.getClientId());
+            ps.setLong(3, redemption.getOrderId());
+            ps.setTimestamp(4, Timestamp.valueOf(redemption.getRedeemedAt()));
+        });
+    }
+
+    @Override
+    public int backfillFromOrders() {
+        return jdbcTemplate.update(BACKFILL_SQL);
+    }
+}
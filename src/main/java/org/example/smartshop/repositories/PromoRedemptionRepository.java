@@ -0,0 +1,21 @@
+package org.example.smartshop.repositories;
+
+import org.example.smartshop.entity.PromoRedemption;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PromoRedemptionRepository extends JpaRepository<PromoRedemption, Long>, PromoRedemptionBatchRepository {
+
+    @Query("SELECT r.clientId AS clientId, COUNT(r) AS redemptions FROM PromoRedemption r " +
+            "WHERE r.promoCodeId = :promoCodeId GROUP BY r.clientId")
+    List<ClientRedemptions> countByClient(Long promoCodeId);
+
+    interface ClientRedemptions {
+        Long getClientId();
+        long getRedemptions();
+    }
+}
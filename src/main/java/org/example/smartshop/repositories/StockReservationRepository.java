@@ -0,0 +1,34 @@
+package org.example.smartshop.repositories;
+
+import jakarta.persistence.LockModeType;
+import org.example.smartshop.entity.StockReservation;
+import org.example.smartshop.enums.ReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockReservation> findByOrderIdInAndStatus(Collection<Long> orderIds, ReservationStatus status);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.order.id = :orderId AND r.status = :from")
+    int updateStatusByOrderId(Long orderId, ReservationStatus from, ReservationStatus to);
+
+    @Query("SELECT r.order.id AS orderId, MIN(r.expiresAt) AS expiresAt FROM StockReservation r " +
+            "WHERE r.status = :status GROUP BY r.order.id")
+    List<ExpiryView> findExpiriesByStatus(ReservationStatus status);
+
+    interface ExpiryView {
+        Long getOrderId();
+        LocalDateTime getExpiresAt();
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.smartshop.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Re-runs the annotated method, with its own transaction, when it loses an optimistic lock race
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OptimisticRetry {
+    int maxAttempts() default 3;
+    long backoffMs() default 20;
+}
@@ -0,0 +1,32 @@
+package org.example.smartshop.retry;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Runs outside the transaction advisor so every attempt gets a fresh transaction and persistence context.
+// HIGHEST_PRECEDENCE would sort it ahead of ExposeInvocationInterceptor and break the @annotation(retry) binding.
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class OptimisticRetryAspect {
+
+    private final OptimisticRetryTemplate retryTemplate;
+
+    @Around("@annotation(retry)")
+    public Object retry(ProceedingJoinPoint joinPoint, OptimisticRetry retry) throws Throwable {
+        // A caller's transaction still holds the stale entities, so only the outermost call may retry
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        return retryTemplate.execute(joinPoint.getSignature().toShortString(), retry.maxAttempts(), retry.backoffMs(),
+                joinPoint::proceed);
+    }
+}
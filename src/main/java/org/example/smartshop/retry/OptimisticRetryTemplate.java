@@ -0,0 +1,62 @@
+package org.example.smartshop.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// The retry loop behind @OptimisticRetry, for callers that open the transaction themselves.
+// Each attempt must run in a transaction of its own, started and ended inside the attempt
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OptimisticRetryTemplate {
+
+    private static final long MAX_BACKOFF_MS = 1000;
+
+    private final MeterRegistry meterRegistry;
+
+    public <T, E extends Throwable> T execute(String name, int maxAttempts, long backoffMs, Attempt<T, E> attempt)
+            throws E {
+        meterRegistry.counter("smartshop.optimistic.calls", "method", name).increment();
+
+        for (int count = 1; ; count++) {
+            try {
+                return attempt.run();
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("smartshop.optimistic.conflicts", "method", name).increment();
+                if (count >= maxAttempts) {
+                    meterRegistry.counter("smartshop.optimistic.exhausted", "method", name).increment();
+                    log.warn("{} still conflicting after {} attempts", name, count);
+                    throw e;
+                }
+
+                meterRegistry.counter("smartshop.optimistic.retries", "method", name).increment();
+                pause(backoff(backoffMs, count), e);
+            }
+        }
+    }
+
+    // Exponential ceiling with full jitter, so colliding callers do not retry in lockstep
+    long backoff(long baseMs, int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, baseMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    void pause(long millis, OptimisticLockingFailureException conflict) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Attempt<T, E extends Throwable> {
+        T run() throws E;
+    }
+}
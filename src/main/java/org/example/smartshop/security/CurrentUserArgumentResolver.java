@@ -0,0 +1,32 @@
+package org.example.smartshop.security;
+
+import org.example.smartshop.exception.UnauthorizedException;
+import org.example.smartshop.utils.SessionUser;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && SessionUser.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object user = webRequest.getAttribute(SessionAuthInterceptor.CURRENT_USER_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (user == null) {
+            throw new UnauthorizedException("Unauthorized");
+        }
+        return user;
+    }
+}
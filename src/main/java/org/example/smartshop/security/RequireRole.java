@@ -0,0 +1,15 @@
+package org.example.smartshop.security;
+
+import org.example.smartshop.enums.UserRole;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Roles allowed to call the handler; on a controller it covers every method that does not declare its own
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequireRole {
+    UserRole[] value();
+}
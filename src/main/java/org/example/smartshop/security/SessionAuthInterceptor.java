@@ -0,0 +1,65 @@
+package org.example.smartshop.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.smartshop.enums.UserRole;
+import org.example.smartshop.exception.UnauthorizedException;
+import org.example.smartshop.services.AuthService;
+import org.example.smartshop.utils.SessionUser;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+
+// Every handler requires a logged-in user unless marked @PublicEndpoint. Runs before argument resolution,
+// so rejected calls never have their body read; AuthService resolves the user without creating a session
+@Component
+@RequiredArgsConstructor
+public class SessionAuthInterceptor implements HandlerInterceptor {
+
+    static final String CURRENT_USER_ATTRIBUTE = SessionUser.class.getName();
+
+    private final AuthService authService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || isPublic(handlerMethod)) {
+            return true;
+        }
+
+        SessionUser user = authService.getCurrentUser(request);
+        if (user == null) {
+            throw new UnauthorizedException("Unauthorized");
+        }
+
+        RequireRole requireRole = findAnnotation(handlerMethod, RequireRole.class);
+        if (requireRole != null && !hasRole(user, requireRole.value())) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return false;
+        }
+
+        request.setAttribute(CURRENT_USER_ATTRIBUTE, user);
+        return true;
+    }
+
+    private static boolean isPublic(HandlerMethod handlerMethod) {
+        return findAnnotation(handlerMethod, PublicEndpoint.class) != null;
+    }
+
+    private static boolean hasRole(SessionUser user, UserRole[] roles) {
+        return Arrays.asList(roles).contains(user.getRole());
+    }
+
+    // The method's own annotation wins over the controller's
+    private static <A extends Annotation> A findAnnotation(HandlerMethod handlerMethod, Class<A> type) {
+        A annotation = handlerMethod.getMethodAnnotation(type);
+        return annotation != null
+                ? annotation
+                : AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), type);
+    }
+}
@@ -1,11 +1,12 @@
 package org.example.smartshop.services;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.example.smartshop.dtos.request.LoginRequest;
 import org.example.smartshop.utils.SessionUser;
 
 public interface AuthService {
-    SessionUser login(LoginRequest request, HttpSession session);
-    void logout(HttpSession session);
-    SessionUser getCurrentUser(HttpSession session);
+    SessionUser login(LoginRequest request, HttpServletRequest httpRequest, HttpServletResponse httpResponse);
+    void logout(HttpServletRequest httpRequest);
+    SessionUser getCurrentUser(HttpServletRequest httpRequest);
 }
@@ -4,8 +4,11 @@ import org.example.smartshop.dtos.request.ClientRequest;
 import org.example.smartshop.dtos.response.ClientResponse;
 import org.example.smartshop.dtos.response.OrderResponse;
 import org.example.smartshop.entity.Client;
+import org.example.smartshop.utils.Money;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ClientService {
     ClientResponse createClient(ClientRequest request);
@@ -14,7 +17,8 @@ public interface ClientService {
     void deleteClient(Long id);
     List<ClientResponse> getAllClients();
     List<OrderResponse> getClientOrderHistory(Long clientId);
-    void updateClientStats(Long clientId, Double orderAmount);
+    void recordOrderStats(Long clientId, Money orderAmount);
     void recalculateLoyaltyTier(Long clientId);
     Client getClientEntityById(Long id);
+    Map<Long, Client> findClientEntitiesByIds(Collection<Long> ids);
 }
@@ -0,0 +1,7 @@
+package org.example.smartshop.services;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+    <T> T execute(String scope, Long principalId, String key, Object request, Class<T> responseType, Supplier<T> action);
+}
@@ -0,0 +1,7 @@
+package org.example.smartshop.services;
+
+import org.example.smartshop.dtos.response.TierRecalculationResponse;
+
+public interface LoyaltyTierService {
+    TierRecalculationResponse recalculateTiers(boolean dryRun);
+}
@@ -0,0 +1,9 @@
+package org.example.smartshop.services;
+
+import org.example.smartshop.enums.ExportFormat;
+
+import java.io.OutputStream;
+
+public interface OrderExportService {
+    void exportOrders(ExportFormat format, OutputStream outputStream);
+}
@@ -1,6 +1,10 @@
 package org.example.smartshop.services;
 
+import org.example.smartshop.dtos.request.OrderFilterRequest;
 import org.example.smartshop.dtos.request.OrderRequest;
+import org.example.smartshop.dtos.response.OrderBatchResponse;
+import org.example.smartshop.dtos.response.OrderPageResponse;
+import org.example.smartshop.dtos.response.OrderQuoteResponse;
 import org.example.smartshop.dtos.response.OrderResponse;
 import org.example.smartshop.entity.Order;
 
@@ -8,9 +12,12 @@ import java.util.List;
 
 public interface OrderService {
     OrderResponse createOrder(OrderRequest request);
+    OrderBatchResponse createOrders(List<OrderRequest> requests);
+    OrderQuoteResponse quoteOrder(OrderRequest request);
     OrderResponse getOrderById(Long id);
-    List<OrderResponse> getAllOrders();
+    OrderPageResponse getOrders(OrderFilterRequest filter);
     Order getOrderEntityById(Long id);
+    Order getOrderEntityForUpdate(Long id);
     OrderResponse confirmOrder(Long id);
     OrderResponse cancelOrder(Long id);
 }
@@ -0,0 +1,8 @@
+package org.example.smartshop.services;
+
+import org.example.smartshop.utils.PricingRuleSet;
+
+public interface PricingEngine {
+    PricingRuleSet rules();
+    void reload();
+}
@@ -0,0 +1,17 @@
+package org.example.smartshop.services;
+
+import org.example.smartshop.dtos.request.PricingRuleRequest;
+import org.example.smartshop.dtos.request.PromoCodeRequest;
+import org.example.smartshop.dtos.response.PricingRuleResponse;
+import org.example.smartshop.dtos.response.PromoCodeResponse;
+
+import java.util.List;
+
+public interface PricingService {
+    List<PricingRuleResponse> getPricingRules();
+    PricingRuleResponse createPricingRule(PricingRuleRequest request);
+    PricingRuleResponse updatePricingRule(Long id, PricingRuleRequest request);
+    List<PromoCodeResponse> getPromoCodes();
+    PromoCodeResponse createPromoCode(PromoCodeRequest request);
+    PromoCodeResponse updatePromoCode(Long id, PromoCodeRequest request);
+}
@@ -0,0 +1,15 @@
+package org.example.smartshop.services;
+
+import org.example.smartshop.utils.Money;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ProductPriceCache {
+    // Ids with no product are left out of the map
+    Map<Long, ProductPrice> getPrices(Collection<Long> ids);
+    void invalidate(Long productId);
+
+    record ProductPrice(Long productId, String nom, Money prixUnitaire) {
+    }
+}
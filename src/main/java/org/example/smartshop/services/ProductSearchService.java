@@ -0,0 +1,7 @@
+package org.example.smartshop.services;
+
+import java.util.List;
+
+public interface ProductSearchService {
+    List<Long> search(String query, int limit);
+}
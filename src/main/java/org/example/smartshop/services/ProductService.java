@@ -1,17 +1,29 @@
 package org.example.smartshop.services;
 
+import org.example.smartshop.dtos.request.ProductFilterRequest;
 import org.example.smartshop.dtos.request.ProductRequest;
+import org.example.smartshop.dtos.response.ProductPageResponse;
 import org.example.smartshop.dtos.response.ProductResponse;
 import org.example.smartshop.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public interface ProductService {
     ProductResponse createProduct(ProductRequest request);
     ProductResponse getProductById(Long id);
     ProductResponse updateProduct(Long id, ProductRequest request);
     void deleteProduct(Long id);
     Page<ProductResponse> getAllProducts(Pageable pageable);
+    List<ProductResponse> searchProducts(String query, int size);
+    ProductPageResponse browseProducts(ProductFilterRequest filter);
     Product getProductEntityById(Long id);
+    Map<Long, Product> getProductEntitiesByIds(Collection<Long> ids);
+    Map<Long, Product> findProductEntitiesByIds(Collection<Long> ids);
     void decrementStock(Long productId, Integer quantity);
+    List<Long> decrementStocks(Map<Long, Integer> quantities);
+    void incrementStocks(Map<Long, Integer> quantities);
 }
@@ -1,6 +1,16 @@
 package org.example.smartshop.services;
 
+import org.example.smartshop.utils.PricingRuleSet;
+
 public interface PromoCodeService {
-    boolean isValidPromoCode(String code);
-    Double getPromoDiscount();
+    // Null when the code's global or per-client cap is already reached
+    PromoReservation reserve(PricingRuleSet.PromoRule promo, Long clientId);
+    // Same caps as reserve, without taking a use
+    boolean isAvailable(PricingRuleSet.PromoRule promo, Long clientId);
+    void flushRedemptions();
+
+    // Handed back to the pool when the transaction rolls back or commits without an order redeeming it
+    interface PromoReservation {
+        void redeem(Long orderId);
+    }
 }
@@ -0,0 +1,9 @@
+package org.example.smartshop.services;
+
+import java.util.List;
+import java.util.Map;
+
+public interface StockAllocator {
+    List<Long> reserve(Map<Long, Integer> quantities);
+    void release(Map<Long, Integer> quantities);
+}
@@ -0,0 +1,12 @@
+package org.example.smartshop.services;
+
+import org.example.smartshop.entity.Order;
+
+import java.util.Collection;
+
+public interface StockReservationService {
+    void reserve(Order order);
+    void confirm(Long orderId);
+    void release(Long orderId);
+    void expire(Collection<Long> orderIds);
+}
@@ -1,26 +1,54 @@
 package org.example.smartshop.services.impl;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
-import lombok.RequiredArgsConstructor;
+import org.example.smartshop.config.AuthProperties;
 import org.example.smartshop.dtos.request.LoginRequest;
 import org.example.smartshop.entity.User;
+import org.example.smartshop.enums.AuthMode;
 import org.example.smartshop.enums.UserRole;
 import org.example.smartshop.exception.UnauthorizedException;
 import org.example.smartshop.repositories.ClientRepository;
 import org.example.smartshop.repositories.UserRepository;
 import org.example.smartshop.services.AuthService;
 import org.example.smartshop.utils.SessionUser;
+import org.example.smartshop.utils.SignedTokenCodec;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+// SESSION keeps the user in the servlet session. TOKEN hands out a signed bearer token at login and checks
+// its signature on every request, with no session, store or database lookup
 @Service
-@RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
     private static final String SESSION_USER_KEY = "CURRENT_USER";
+    private static final String BEARER_PREFIX = "Bearer ";
     private final UserRepository userRepository;
     private final ClientRepository clientRepository;
+    private final AuthMode mode;
+    private final SignedTokenCodec tokenCodec;
+
+    public AuthServiceImpl(UserRepository userRepository, ClientRepository clientRepository,
+                           AuthProperties authProperties) {
+        this.userRepository = userRepository;
+        this.clientRepository = clientRepository;
+        this.mode = authProperties.getMode();
+        this.tokenCodec = mode == AuthMode.TOKEN ? tokenCodec(authProperties.getToken()) : null;
+    }
+
+    private static SignedTokenCodec tokenCodec(AuthProperties.Token token) {
+        Map<String, byte[]> keys = new HashMap<>();
+        token.getKeys().forEach((keyId, secret) -> keys.put(keyId, Base64.getDecoder().decode(secret)));
+        return new SignedTokenCodec(keys, token.getActiveKeyId(), token.getTtl());
+    }
 
     @Override
-    public SessionUser login(LoginRequest request,HttpSession session){
+    public SessionUser login(LoginRequest request, HttpServletRequest httpRequest, HttpServletResponse httpResponse){
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(()-> new UnauthorizedException("Invalid username or password"));
 
@@ -39,28 +67,34 @@ public class AuthServiceImpl implements AuthService {
                     .ifPresent(client -> sessionUser.setClientId(client.getId()));
         }
 
-        session.setAttribute(SESSION_USER_KEY, sessionUser);
+        if (mode == AuthMode.TOKEN){
+            httpResponse.setHeader(HttpHeaders.AUTHORIZATION, BEARER_PREFIX + tokenCodec.issue(sessionUser, Instant.now()));
+        } else {
+            httpRequest.getSession().setAttribute(SESSION_USER_KEY, sessionUser);
+        }
         return sessionUser;
     }
+
+    // Tokens cannot be revoked and simply run out at their expiry
     @Override
-    public void logout(HttpSession session){
-        session.invalidate();
+    public void logout(HttpServletRequest httpRequest){
+        HttpSession session = httpRequest.getSession(false);
+        if (session != null){
+            session.invalidate();
+        }
     }
+
     @Override
-    public SessionUser getCurrentUser(HttpSession session){
-        return (SessionUser) session.getAttribute(SESSION_USER_KEY);
+    public SessionUser getCurrentUser(HttpServletRequest httpRequest){
+        if (mode == AuthMode.TOKEN){
+            String header = httpRequest.getHeader(HttpHeaders.AUTHORIZATION);
+            if (header == null || !header.startsWith(BEARER_PREFIX)){
+                return null;
+            }
+            return tokenCodec.verify(header.substring(BEARER_PREFIX.length()), Instant.now());
+        }
+
+        HttpSession session = httpRequest.getSession(false);
+        return session == null ? null : (SessionUser) session.getAttribute(SESSION_USER_KEY);
     }
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
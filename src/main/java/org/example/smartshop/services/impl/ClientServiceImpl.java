@@ -1,27 +1,38 @@
 package org.example.smartshop.services.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.smartshop.config.LoyaltyProperties;
 import org.example.smartshop.dtos.request.ClientRequest;
 import org.example.smartshop.dtos.response.ClientResponse;
 import org.example.smartshop.dtos.response.OrderResponse;
 import org.example.smartshop.entity.Client;
+import org.example.smartshop.entity.ClientStatsEntry;
 import org.example.smartshop.entity.User;
 import org.example.smartshop.enums.CustomerTier;
 import org.example.smartshop.enums.UserRole;
+import org.example.smartshop.events.ClientStatsRecordedEvent;
 import org.example.smartshop.exception.BusinessException;
 import org.example.smartshop.exception.ResourceNotFoundException;
 import org.example.smartshop.mapper.ClientMapper;
-import org.example.smartshop.mapper.OrderMapper;
 import org.example.smartshop.repositories.ClientRepository;
+import org.example.smartshop.repositories.ClientStatsEntryRepository;
 import org.example.smartshop.repositories.OrderRepository;
+import org.example.smartshop.repositories.OrderSpecifications;
 import org.example.smartshop.repositories.UserRepository;
+import org.example.smartshop.retry.OptimisticRetry;
 import org.example.smartshop.services.ClientService;
+import org.example.smartshop.utils.Money;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,10 +40,12 @@ import java.util.stream.Collectors;
 public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository clientRepository;
+    private final ClientStatsEntryRepository clientStatsEntryRepository;
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
     private final ClientMapper clientMapper;
-    private final OrderMapper orderMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoyaltyProperties loyaltyProperties;
 
     @Override
     @Transactional
@@ -57,7 +70,7 @@ public class ClientServiceImpl implements ClientService {
         client.setUser(savedUser);
         client.setTier(CustomerTier.BASIC);
         client.setTotalOrders(0);
-        client.setTotalSpent(0.0);
+        client.setTotalSpent(Money.ZERO);
 
         Client saved = clientRepository.save(client);
         return clientMapper.toResponse(saved);
@@ -71,6 +84,7 @@ public class ClientServiceImpl implements ClientService {
     }
 
     @Override
+    @OptimisticRetry
     @Transactional
     public ClientResponse updateClient(Long id, ClientRequest request) {
         Client client = getClientEntityById(id);
@@ -88,7 +102,8 @@ public class ClientServiceImpl implements ClientService {
     @Override
     @Transactional
     public void deleteClient(Long id) {
-        Client client = getClientEntityById(id);
+        Client client = clientRepository.findWithUserById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
         User user = client.getUser();
         clientRepository.delete(client);
         if (user != null) {
@@ -106,49 +121,29 @@ public class ClientServiceImpl implements ClientService {
 
     @Override
     public List<OrderResponse> getClientOrderHistory(Long clientId) {
-        return orderRepository.findByClientIdOrderByDateCreationDesc(clientId).stream()
-                .map(orderMapper::toResponse)
-                .collect(Collectors.toList());
+        return orderRepository.findOrderResponses(OrderSpecifications.hasClient(clientId),
+                Sort.by(Sort.Order.desc("dateCreation"), Sort.Order.desc("id")), null);
     }
 
+    // Written in the caller's transaction; ClientStatsAggregator applies it to the client later
     @Override
     @Transactional
-    public void updateClientStats(Long clientId, Double orderAmount) {
-        Client client = getClientEntityById(clientId);
-
-        client.setTotalOrders(client.getTotalOrders() + 1);
-        client.setTotalSpent(client.getTotalSpent() + orderAmount);
-
-        if (client.getFirstOrderDate() == null) {
-            client.setFirstOrderDate(LocalDateTime.now());
-        }
-        client.setLastOrderDate(LocalDateTime.now());
-
-        clientRepository.save(client);
-        recalculateLoyaltyTier(clientId);
+    public void recordOrderStats(Long clientId, Money orderAmount) {
+        clientStatsEntryRepository.save(ClientStatsEntry.builder()
+                .clientId(clientId)
+                .montant(orderAmount)
+                .orderDate(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new ClientStatsRecordedEvent(clientId));
     }
 
     @Override
+    @OptimisticRetry
     @Transactional
     public void recalculateLoyaltyTier(Long clientId) {
         Client client = getClientEntityById(clientId);
 
-        Integer totalOrders = client.getTotalOrders();
-        Double totalSpent = client.getTotalSpent();
-
-        CustomerTier newTier;
-
-        if (totalOrders >= 20 || totalSpent >= 15000) {
-            newTier = CustomerTier.PLATINUM;
-        } else if (totalOrders >= 10 || totalSpent >= 5000) {
-            newTier = CustomerTier.GOLD;
-        } else if (totalOrders >= 3 || totalSpent >= 1000) {
-            newTier = CustomerTier.SILVER;
-        } else {
-            newTier = CustomerTier.BASIC;
-        }
-
-        client.setTier(newTier);
+        client.setTier(loyaltyProperties.tierFor(client.getTotalOrders(), client.getTotalSpent().toDouble()));
         clientRepository.save(client);
     }
 
@@ -158,5 +153,11 @@ public class ClientServiceImpl implements ClientService {
                 .orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
     }
 
+    @Override
+    public Map<Long, Client> findClientEntitiesByIds(Collection<Long> ids) {
+        return clientRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Client::getId, Function.identity()));
+    }
+
 
 }
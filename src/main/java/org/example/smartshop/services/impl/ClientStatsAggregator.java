@@ -0,0 +1,79 @@
+package org.example.smartshop.services.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartshop.config.LoyaltyProperties;
+import org.example.smartshop.events.ClientStatsRecordedEvent;
+import org.example.smartshop.repositories.ClientRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Folds the client_stats_outbox into clients every flush interval, or sooner once a batch worth of orders is waiting
+@Slf4j
+@Component
+public class ClientStatsAggregator {
+
+    private final ClientRepository clientRepository;
+    private final LoyaltyProperties loyaltyProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "client-stats-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ClientStatsAggregator(ClientRepository clientRepository,
+                                 LoyaltyProperties loyaltyProperties,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${smartshop.client-stats.batch-size:500}") int batchSize) {
+        this.clientRepository = clientRepository;
+        this.loyaltyProperties = loyaltyProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @TransactionalEventListener
+    public void onClientStatsRecorded(ClientStatsRecordedEvent event) {
+        if (recorded.incrementAndGet() >= batchSize) {
+            recorded.set(0);
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.client-stats.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            int applied;
+            do {
+                applied = transactionTemplate.execute(status -> clientRepository.applyStatsOutbox(batchSize, loyaltyProperties.thresholds()));
+            } while (applied >= batchSize);
+        } catch (RuntimeException e) {
+            // Rows stay in the outbox and are picked up by the next flush
+            log.error("Failed to apply client statistics outbox", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+    }
+}
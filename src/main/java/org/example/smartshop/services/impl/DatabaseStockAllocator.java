@@ -0,0 +1,28 @@
+package org.example.smartshop.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.smartshop.services.ProductService;
+import org.example.smartshop.services.StockAllocator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "smartshop.stock.ledger.enabled", havingValue = "false", matchIfMissing = true)
+public class DatabaseStockAllocator implements StockAllocator {
+
+    private final ProductService productService;
+
+    @Override
+    public List<Long> reserve(Map<Long, Integer> quantities) {
+        return productService.decrementStocks(quantities);
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantities) {
+        productService.incrementStocks(quantities);
+    }
+}
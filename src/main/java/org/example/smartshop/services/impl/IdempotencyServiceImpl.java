@@ -0,0 +1,194 @@
+package org.example.smartshop.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.smartshop.entity.IdempotencyRecord;
+import org.example.smartshop.exception.BadRequestException;
+import org.example.smartshop.exception.BusinessException;
+import org.example.smartshop.repositories.IdempotencyRecordRepository;
+import org.example.smartshop.retry.OptimisticRetryTemplate;
+import org.example.smartshop.services.IdempotencyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    // Matches the idempotency_key column
+    static final int MAX_KEY_LENGTH = 255;
+    // The @OptimisticRetry defaults
+    private static final int RETRY_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MS = 20;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetryTemplate retryTemplate;
+    private final Duration ttl;
+
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  OptimisticRetryTemplate retryTemplate,
+                                  @Value("${smartshop.idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${smartshop.idempotency.cache-size:10000}") long cacheSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryTemplate = retryTemplate;
+        this.ttl = ttl;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public <T> T execute(String scope, Long principalId, String key, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        // Keys are only unique per caller, two callers picking the same key must not see each other's responses
+        String callerScope = scope + ":" + principalId;
+        String cacheKey = callerScope + ":" + key;
+        String requestHash = hash(request);
+
+        // Concurrent duplicates wait for the first execution instead of racing it
+        CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(cacheKey, execution);
+        if (running != null) {
+            return replay(await(running), requestHash, responseType);
+        }
+
+        try {
+            StoredResponse stored = completed.getIfPresent(cacheKey);
+            if (stored == null) {
+                stored = idempotencyRecordRepository
+                        .findByScopeAndIdempotencyKeyAndCreatedAtAfter(callerScope, key, LocalDateTime.now().minus(ttl))
+                        .map(record -> new StoredResponse(record.getRequestHash(), record.getResponseBody()))
+                        .orElse(null);
+            }
+
+            T response;
+            if (stored == null) {
+                response = executeAndStore(scope, callerScope, key, requestHash, responseType, action);
+                stored = new StoredResponse(requestHash, objectMapper.writeValueAsString(response));
+            } else {
+                response = replay(stored, requestHash, responseType);
+            }
+
+            completed.put(cacheKey, stored);
+            execution.complete(stored);
+            return response;
+        } catch (RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, execution);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteByCreatedAtBefore(LocalDateTime.now().minus(ttl));
+    }
+
+    private <T> T executeAndStore(String operation, String scope, String key, String requestHash,
+                                  Class<T> responseType, Supplier<T> action) {
+        return executeAndStore(operation, scope, key, requestHash, responseType, action, true);
+    }
+
+    private <T> T executeAndStore(String operation, String scope, String key, String requestHash,
+                                  Class<T> responseType, Supplier<T> action, boolean replaceExpired) {
+        try {
+            // The record is written in the same transaction as the operation it guards. That transaction makes
+            // @OptimisticRetry on the action stand aside, so the whole transaction is retried here instead
+            return retryTemplate.execute("IdempotencyService." + operation, RETRY_ATTEMPTS, RETRY_BACKOFF_MS,
+                    () -> transactionTemplate.execute(status -> {
+                        T response = action.get();
+                        idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                                .scope(scope)
+                                .idempotencyKey(key)
+                                .requestHash(requestHash)
+                                .responseBody(objectMapper.writeValueAsString(response))
+                                .createdAt(LocalDateTime.now())
+                                .build());
+                        return response;
+                    }));
+        } catch (DataIntegrityViolationException e) {
+            LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+            IdempotencyRecord existing = idempotencyRecordRepository.findByScopeAndIdempotencyKey(scope, key)
+                    .orElseThrow(() -> e);
+            if (existing.getCreatedAt().isAfter(cutoff)) {
+                // Another node committed the same key first; our attempt was rolled back, replay theirs
+                return replay(new StoredResponse(existing.getRequestHash(), existing.getResponseBody()),
+                        requestHash, responseType);
+            }
+            if (!replaceExpired) {
+                throw e;
+            }
+            // The key expired but the purge has not caught up yet, drop the stale row and run again
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyRecordRepository.deleteExpired(scope, key, cutoff));
+            return executeAndStore(operation, scope, key, requestHash, responseType, action, false);
+        }
+    }
+
+    private <T> T replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BusinessException("Idempotency-Key was already used with a different request");
+        }
+        return objectMapper.readValue(stored.body(), responseType);
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StoredResponse(String requestHash, String body) {
+    }
+}
@@ -0,0 +1,248 @@
+package org.example.smartshop.services.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartshop.entity.Product;
+import org.example.smartshop.events.ProductChangedEvent;
+import org.example.smartshop.repositories.ProductRepository;
+import org.example.smartshop.services.StockAllocator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "smartshop.stock.ledger.enabled", havingValue = "true")
+public class InMemoryStockLedger implements StockAllocator {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Invariant at rest: available = products.stock - pending
+    private final ConcurrentMap<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, AtomicInteger> pending = new ConcurrentHashMap<>();
+    // products.stock as last seeded or flushed by the ledger, guarded by flushLock
+    private final Map<Long, Integer> knownStock = new HashMap<>();
+
+    // Serializes seeding, flushing and reconciliation; reservations never take it
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public InMemoryStockLedger(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public List<Long> reserve(Map<Long, Integer> quantities) {
+        Map<Long, Integer> taken = new HashMap<>();
+        List<Long> failed = new ArrayList<>();
+
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+            if (tryTake(line.getKey(), line.getValue())) {
+                taken.put(line.getKey(), line.getValue());
+            } else {
+                failed.add(line.getKey());
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            taken.forEach(this::giveBackAvailable);
+            return failed;
+        }
+
+        taken.forEach((productId, quantity) -> pendingCounter(productId).addAndGet(quantity));
+        giveBackOnRollback(taken);
+        return failed;
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            giveBackAvailable(productId, quantity);
+            pendingCounter(productId).addAndGet(-quantity);
+        });
+        takeBackOnRollback(quantities);
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.stock.ledger.flush-interval-ms:500}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Integer> deltas = new HashMap<>();
+            pending.forEach((productId, counter) -> {
+                int delta = counter.getAndSet(0);
+                if (delta != 0) {
+                    deltas.put(productId, delta);
+                }
+            });
+
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> productRepository.subtractStocks(deltas));
+                deltas.forEach((productId, delta) -> knownStock.computeIfPresent(productId, (id, stock) -> stock - delta));
+            } catch (RuntimeException e) {
+                deltas.forEach((productId, delta) -> pendingCounter(productId).addAndGet(delta));
+                log.error("Stock ledger flush failed, {} product deltas kept for the next run", deltas.size(), e);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.stock.ledger.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        findDrifts().forEach(drift -> log.warn("Stock ledger drift detected: {}", drift));
+    }
+
+    public List<StockDrift> findDrifts() {
+        flushLock.lock();
+        try {
+            List<StockDrift> drifts = new ArrayList<>();
+            for (Product product : productRepository.findAllById(available.keySet())) {
+                int unflushed = pendingCounter(product.getId()).get();
+                int ledgerStock = available.get(product.getId()).get();
+                if (ledgerStock != product.getStock() - unflushed) {
+                    drifts.add(new StockDrift(product.getId(), ledgerStock, product.getStock(), unflushed));
+                }
+            }
+
+            return drifts;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        // Stock was edited outside the ledger. The counter is kept and shifted by the edit rather than replaced:
+        // a reservation between its take and its pending increment would otherwise be counted as available again
+        flushLock.lock();
+        try {
+            AtomicInteger counter = available.get(event.productId());
+            if (counter == null) {
+                return;
+            }
+
+            Integer stock = productRepository.findStockById(event.productId()).orElse(null);
+            if (stock == null) {
+                available.remove(event.productId());
+                knownStock.remove(event.productId());
+                return;
+            }
+
+            counter.addAndGet(stock - knownStock.getOrDefault(event.productId(), stock));
+            knownStock.put(event.productId(), stock);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private boolean tryTake(Long productId, int quantity) {
+        AtomicInteger counter = availableCounter(productId);
+        if (counter == null) {
+            return false;
+        }
+
+        int current;
+        do {
+            current = counter.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    private AtomicInteger availableCounter(Long productId) {
+        AtomicInteger counter = available.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+
+        flushLock.lock();
+        try {
+            return available.computeIfAbsent(productId, id -> productRepository.findStockById(id)
+                    .map(stock -> {
+                        knownStock.put(id, stock);
+                        return new AtomicInteger(stock - pendingCounter(id).get());
+                    })
+                    .orElse(null));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void giveBackAvailable(Long productId, Integer quantity) {
+        // A deleted product has no counter left, nothing to give back in memory
+        AtomicInteger counter = available.get(productId);
+        if (counter != null) {
+            counter.addAndGet(quantity);
+        }
+    }
+
+    private AtomicInteger pendingCounter(Long productId) {
+        return pending.computeIfAbsent(productId, id -> new AtomicInteger());
+    }
+
+    private void giveBackOnRollback(Map<Long, Integer> taken) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    taken.forEach((productId, quantity) -> {
+                        giveBackAvailable(productId, quantity);
+                        pendingCounter(productId).addAndGet(-quantity);
+                    });
+                }
+            }
+        });
+    }
+
+    private void takeBackOnRollback(Map<Long, Integer> released) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    released.forEach((productId, quantity) -> {
+                        giveBackAvailable(productId, -quantity);
+                        pendingCounter(productId).addAndGet(quantity);
+                    });
+                }
+            }
+        });
+    }
+
+    public record StockDrift(Long productId, int ledgerStock, int databaseStock, int unflushed) {
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.smartshop.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartshop.config.LoyaltyProperties;
+import org.example.smartshop.dtos.response.TierRecalculationResponse;
+import org.example.smartshop.enums.CustomerTier;
+import org.example.smartshop.exception.BusinessException;
+import org.example.smartshop.repositories.ClientRepository;
+import org.example.smartshop.repositories.ClientStatsRepository;
+import org.example.smartshop.services.LoyaltyTierService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+public class LoyaltyTierServiceImpl implements LoyaltyTierService {
+
+    private final ClientRepository clientRepository;
+    private final LoyaltyProperties loyaltyProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LoyaltyTierServiceImpl(ClientRepository clientRepository,
+                                  LoyaltyProperties loyaltyProperties,
+                                  PlatformTransactionManager transactionManager) {
+        this.clientRepository = clientRepository;
+        this.loyaltyProperties = loyaltyProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public TierRecalculationResponse recalculateTiers(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("A tier recalculation is already running");
+        }
+
+        try {
+            return recalculate(dryRun);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Keyset passes over client ids, one short transaction per chunk, so row locks never pile up
+    private TierRecalculationResponse recalculate(boolean dryRun) {
+        Map<CustomerTier, LoyaltyProperties.Threshold> thresholds = loyaltyProperties.thresholds();
+        int chunkSize = loyaltyProperties.getRecalculationChunkSize();
+        long total = clientRepository.count();
+
+        Map<String, TierRecalculationResponse.TierMovement> movements = new LinkedHashMap<>();
+        long scanned = 0;
+        long moved = 0;
+        Long afterId = 0L;
+
+        while (true) {
+            Long from = afterId;
+            ClientStatsRepository.ClientChunk chunk = clientRepository.findChunk(from, chunkSize);
+            if (chunk.size() == 0) {
+                break;
+            }
+            Long upTo = chunk.lastId();
+
+            List<ClientStatsRepository.TierMovement> chunkMovements = transactionTemplate.execute(status -> {
+                List<ClientStatsRepository.TierMovement> counted =
+                        clientRepository.countTierMovements(from, upTo, thresholds);
+                if (!dryRun) {
+                    clientRepository.applyTiers(from, upTo, thresholds);
+                }
+                return counted;
+            });
+
+            for (ClientStatsRepository.TierMovement movement : chunkMovements) {
+                TierRecalculationResponse.TierMovement sum = movements.computeIfAbsent(
+                        movement.from() + "->" + movement.to(),
+                        key -> new TierRecalculationResponse.TierMovement(movement.from(), movement.to(), 0L));
+                sum.setCount(sum.getCount() + movement.count());
+                moved += movement.count();
+            }
+
+            scanned += chunk.size();
+            afterId = upTo;
+            // total is counted up front, so clients created meanwhile can push scanned past it
+            log.info("Tier recalculation{}: {} of ~{} clients scanned, {} moving", dryRun ? " (dry run)" : "",
+                    scanned, total, moved);
+        }
+
+        return TierRecalculationResponse.builder()
+                .dryRun(dryRun)
+                .scanned(scanned)
+                .moved(moved)
+                .movements(List.copyOf(movements.values()))
+                .build();
+    }
+}
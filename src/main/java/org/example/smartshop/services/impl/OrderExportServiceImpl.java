@@ -0,0 +1,116 @@
+package org.example.smartshop.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.smartshop.dtos.response.OrderResponse;
+import org.example.smartshop.enums.ExportFormat;
+import org.example.smartshop.repositories.OrderRepository;
+import org.example.smartshop.repositories.OrderSpecifications;
+import org.example.smartshop.services.OrderExportService;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final String CSV_HEADER = "orderId,dateCreation,clientId,clientNom,status,codePromo,sousTotal," +
+            "montantRemise,montantHtApresRemise,tva,totalTtc,montantRestant," +
+            "productId,productNom,quantite,prixUnitaire,totalLigne";
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(ExportFormat format, OutputStream outputStream) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            // Ids come from a forward-only cursor; each chunk is read as plain columns, never as entities
+            try (Stream<Long> ids = orderRepository.streamAllIds()) {
+                Iterator<Long> iterator = ids.iterator();
+                List<Long> chunk = new ArrayList<>(CHUNK_SIZE);
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                    if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                        writeChunk(chunk, format, writer);
+                        chunk.clear();
+                    }
+                }
+            }
+
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeChunk(List<Long> ids, ExportFormat format, Writer writer) throws IOException {
+        List<OrderResponse> orders = orderRepository.findOrderResponses(OrderSpecifications.hasIdIn(ids),
+                Sort.by("id"), null);
+
+        for (OrderResponse order : orders) {
+            if (format == ExportFormat.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(order));
+                writer.write('\n');
+            } else {
+                writeCsvRows(order, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsvRows(OrderResponse order, Writer writer) throws IOException {
+        String orderColumns = String.join(",",
+                csv(order.getId()), csv(order.getDateCreation()), csv(order.getClientId()), csv(order.getClientNom()),
+                csv(order.getStatus()), csv(order.getCodePromo()), csv(order.getSousTotal()),
+                csv(order.getMontantRemise()), csv(order.getMontantHtApresRemise()), csv(order.getTva()),
+                csv(order.getTotalTtc()), csv(order.getMontantRestant()));
+
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            writer.write(orderColumns);
+            writer.write(",,,,,\n");
+            return;
+        }
+
+        for (OrderResponse.OrderItemResponse item : order.getItems()) {
+            writer.write(orderColumns);
+            writer.write(',');
+            writer.write(String.join(",",
+                    csv(item.getProductId()), csv(item.getProductNom()), csv(item.getQuantite()),
+                    csv(item.getPrixUnitaire()), csv(item.getTotalLigne())));
+            writer.write('\n');
+        }
+    }
+
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
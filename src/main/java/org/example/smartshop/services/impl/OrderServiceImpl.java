@@ -1,30 +1,49 @@
 package org.example.smartshop.services.impl;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.example.smartshop.dtos.request.OrderFilterRequest;
 import org.example.smartshop.dtos.request.OrderRequest;
+import org.example.smartshop.dtos.response.OrderBatchResponse;
+import org.example.smartshop.dtos.response.OrderPageResponse;
+import org.example.smartshop.dtos.response.OrderQuoteResponse;
 import org.example.smartshop.dtos.response.OrderResponse;
 import org.example.smartshop.entity.Client;
 import org.example.smartshop.entity.Order;
 import org.example.smartshop.entity.OrderItem;
 import org.example.smartshop.entity.Product;
-import org.example.smartshop.enums.CustomerTier;
+import org.example.smartshop.enums.OrderBatchStatus;
 import org.example.smartshop.enums.OrderStatus;
 import org.example.smartshop.exception.BusinessException;
 import org.example.smartshop.exception.ResourceNotFoundException;
 import org.example.smartshop.mapper.OrderMapper;
 import org.example.smartshop.repositories.OrderRepository;
+import org.example.smartshop.repositories.OrderSpecifications;
+import org.example.smartshop.retry.OptimisticRetry;
 import org.example.smartshop.services.ClientService;
 import org.example.smartshop.services.OrderService;
+import org.example.smartshop.services.PricingEngine;
+import org.example.smartshop.services.ProductPriceCache;
 import org.example.smartshop.services.ProductService;
 import org.example.smartshop.services.PromoCodeService;
+import org.example.smartshop.services.StockAllocator;
+import org.example.smartshop.services.StockReservationService;
+import org.example.smartshop.utils.Money;
+import org.example.smartshop.utils.OrderCursor;
+import org.example.smartshop.utils.PricingRuleSet;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,10 +52,19 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final ClientService clientService;
     private final ProductService productService;
+    private final ProductPriceCache productPriceCache;
+    private final PricingEngine pricingEngine;
     private final PromoCodeService promoCodeService;
+    private final StockAllocator stockAllocator;
+    private final StockReservationService stockReservationService;
     private final OrderMapper orderMapper;
+    private final Validator validator;
 
     private static final Double TVA_RATE = 0.20;
+    private static final long TVA_BASIS_POINTS = Money.basisPoints(TVA_RATE);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("dateCreation"), Sort.Order.desc("id"));
 
     @Override
     @Transactional
@@ -47,12 +75,102 @@ public class OrderServiceImpl implements OrderService {
 
         Client client = clientService.getClientEntityById(request.getClientId());
 
+        // Load every referenced product once and reuse it for stock check, pricing and decrement
+        Map<Long, Integer> quantities = sumQuantitiesByProduct(request.getItems());
+        Map<Long, Product> products = productService.getProductEntitiesByIds(quantities.keySet());
+
+        Order order = placeOrder(client, request, quantities, products);
+        return orderMapper.toResponse(order);
+    }
+
+    @Override
+    @Transactional
+    public OrderBatchResponse createOrders(List<OrderRequest> requests) {
+        // Resolve every client and product referenced by the batch in two queries
+        Map<Long, Client> clients = clientService.findClientEntitiesByIds(requests.stream()
+                .filter(Objects::nonNull)
+                .map(OrderRequest::getClientId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        Map<Long, Product> products = productService.findProductEntitiesByIds(requests.stream()
+                .filter(request -> request != null && request.getItems() != null)
+                .flatMap(request -> request.getItems().stream())
+                .filter(Objects::nonNull)
+                .map(OrderRequest.OrderItemRequest::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        List<OrderBatchResponse.OrderBatchResult> results = new ArrayList<>();
+        for (int index = 0; index < requests.size(); index++) {
+            results.add(placeBatchOrder(index, requests.get(index), clients, products));
+        }
+
+        int created = (int) results.stream()
+                .filter(result -> result.getStatus() == OrderBatchStatus.CREATED)
+                .count();
+
+        return OrderBatchResponse.builder()
+                .created(created)
+                .rejected(results.size() - created)
+                .results(results)
+                .build();
+    }
+
+    private OrderBatchResponse.OrderBatchResult placeBatchOrder(int index, OrderRequest request,
+                                                                Map<Long, Client> clients,
+                                                                Map<Long, Product> products) {
+        if (request == null) {
+            return rejectedResult(index, "Order cannot be null", null);
+        }
+
+        // Validated here rather than on the request body, so a malformed entry only rejects itself
+        String violations = validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        if (!violations.isEmpty()) {
+            return rejectedResult(index, violations, null);
+        }
+
+        Client client = clients.get(request.getClientId());
+        if (client == null) {
+            return rejectedResult(index, "Client not found with id: " + request.getClientId(), null);
+        }
+
+        Map<Long, Integer> quantities = sumQuantitiesByProduct(request.getItems());
+        for (Long productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                return rejectedResult(index, "Product not found with id: " + productId, null);
+            }
+        }
+
+        Order order = placeOrder(client, request, quantities, products);
+        if (order.getStatus() == OrderStatus.REJECTED) {
+            return rejectedResult(index, "Insufficient stock", orderMapper.toResponse(order));
+        }
+
+        return OrderBatchResponse.OrderBatchResult.builder()
+                .index(index)
+                .status(OrderBatchStatus.CREATED)
+                .order(orderMapper.toResponse(order))
+                .build();
+    }
+
+    private OrderBatchResponse.OrderBatchResult rejectedResult(int index, String reason, OrderResponse order) {
+        return OrderBatchResponse.OrderBatchResult.builder()
+                .index(index)
+                .status(OrderBatchStatus.REJECTED)
+                .reason(reason)
+                .order(order)
+                .build();
+    }
+
+    private Order placeOrder(Client client, OrderRequest request,
+                             Map<Long, Integer> quantities, Map<Long, Product> products) {
         // Check stock availability for all products
-        for (OrderRequest.OrderItemRequest item : request.getItems()) {
-            Product product = productService.getProductEntityById(item.getProductId());
-            if (product.getStock() < item.getQuantite()) {
-                Order rejectedOrder = createRejectedOrder(client, request);
-                return orderMapper.toResponse(rejectedOrder);
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (products.get(entry.getKey()).getStock() < entry.getValue()) {
+                return createRejectedOrder(client, request);
             }
         }
 
@@ -66,11 +184,11 @@ public class OrderServiceImpl implements OrderService {
                 .build();
 
         // Create order items and calculate subtotal
-        Double sousTotal = 0.0;
+        long sousTotalCents = 0;
         for (OrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productService.getProductEntityById(itemRequest.getProductId());
+            Product product = products.get(itemRequest.getProductId());
 
-            Double totalLigne = round(product.getPrixUnitaire() * itemRequest.getQuantite());
+            Money totalLigne = product.getPrixUnitaire().times(itemRequest.getQuantite());
 
             OrderItem orderItem = OrderItem.builder()
                     .order(order)
@@ -81,37 +199,126 @@ public class OrderServiceImpl implements OrderService {
                     .build();
 
             order.getOrderItems().add(orderItem);
-            sousTotal += totalLigne;
+            sousTotalCents = Math.addExact(sousTotalCents, totalLigne.cents());
+        }
+
+        Money sousTotal = Money.ofCents(sousTotalCents);
+
+        // One snapshot of the rules prices the whole order, so a reload cannot split it
+        PricingRuleSet rules = pricingEngine.rules();
+        PricingRuleSet.PromoRule promo = promoBeatingLoyalty(rules, client, sousTotal,
+                rules.promo(request.getCodePromo(), order.getDateCreation()));
+        PromoCodeService.PromoReservation promoReservation = promo == null
+                ? null
+                : promoCodeService.reserve(promo, client.getId());
+        long tauxPromo = promoReservation == null ? PricingRuleSet.NO_PROMO : promo.tauxRemise();
+        Totals totals = computeTotals(rules, client, sousTotal, tauxPromo);
+
+        order.setSousTotal(totals.sousTotal());
+        order.setMontantRemise(totals.montantRemise());
+        order.setMontantHtApresRemise(totals.montantHtApresRemise());
+        order.setTva(totals.tva());
+        order.setTotalTtc(totals.totalTtc());
+        order.setMontantRestant(totals.totalTtc());
+
+        if (promoReservation != null) {
+            order.setCodePromo(promo.code());
+        }
+
+        // Reserve stock atomically; a line that lost a race since the check rejects the order
+        if (!stockAllocator.reserve(quantities).isEmpty()) {
+            return createRejectedOrder(client, request);
+        }
+
+        Order saved = orderRepository.save(order);
+        stockReservationService.reserve(saved);
+        if (promoReservation != null) {
+            promoReservation.redeem(saved.getId());
         }
+        return saved;
+    }
+
+    // The better of the loyalty and promo rates wins, so a promo that does not beat loyalty must not take a capped use
+    private PricingRuleSet.PromoRule promoBeatingLoyalty(PricingRuleSet rules, Client client, Money sousTotal,
+                                                  PricingRuleSet.PromoRule promo) {
+        if (promo == null || promo.tauxRemise() <= rules.loyaltyRate(client.getTier(), sousTotal)) {
+            return null;
+        }
+        return promo;
+    }
 
-        order.setSousTotal(round(sousTotal));
+    // Shared by orders and quotes so both always price the same way
+    private Totals computeTotals(PricingRuleSet rules, Client client, Money sousTotal, long tauxPromo) {
+        Money montantRemise = sousTotal.applyRate(rules.discountRate(client.getTier(), sousTotal, tauxPromo));
+        Money montantHtApresRemise = sousTotal.minus(montantRemise);
+        Money tva = montantHtApresRemise.applyRate(TVA_BASIS_POINTS);
+        return new Totals(sousTotal, montantRemise, montantHtApresRemise, tva, montantHtApresRemise.plus(tva));
+    }
 
-        // Calculate discount
-        Double montantRemise = calculateDiscount(client.getTier(), sousTotal, request.getCodePromo());
-        order.setMontantRemise(round(montantRemise));
+    private record Totals(Money sousTotal, Money montantRemise, Money montantHtApresRemise, Money tva, Money totalTtc) {
+    }
 
-        if (request.getCodePromo() != null && promoCodeService.isValidPromoCode(request.getCodePromo())) {
-            order.setCodePromo(request.getCodePromo());
+    @Override
+    @Transactional(readOnly = true)
+    public OrderQuoteResponse quoteOrder(OrderRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new BusinessException("Order must contain at least one item");
         }
 
-        // Calculate amounts
-        Double montantHtApresRemise = sousTotal - montantRemise;
-        order.setMontantHtApresRemise(round(montantHtApresRemise));
+        Client client = clientService.getClientEntityById(request.getClientId());
 
-        Double tva = montantHtApresRemise * TVA_RATE;
-        order.setTva(round(tva));
+        // Prices come from the short-lived cache; nothing is locked, reserved or written
+        Map<Long, Integer> quantities = sumQuantitiesByProduct(request.getItems());
+        Map<Long, ProductPriceCache.ProductPrice> prices = productPriceCache.getPrices(quantities.keySet());
+        for (Long productId : quantities.keySet()) {
+            if (!prices.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+        }
 
-        Double totalTtc = montantHtApresRemise + tva;
-        order.setTotalTtc(round(totalTtc));
-        order.setMontantRestant(round(totalTtc));
+        List<OrderQuoteResponse.OrderQuoteLine> lines = new ArrayList<>();
+        long sousTotalCents = 0;
+        for (OrderRequest.OrderItemRequest itemRequest : request.getItems()) {
+            ProductPriceCache.ProductPrice price = prices.get(itemRequest.getProductId());
+            Money totalLigne = price.prixUnitaire().times(itemRequest.getQuantite());
 
-        // Decrement stock
-        for (OrderRequest.OrderItemRequest item : request.getItems()) {
-            productService.decrementStock(item.getProductId(), item.getQuantite());
+            lines.add(OrderQuoteResponse.OrderQuoteLine.builder()
+                    .productId(price.productId())
+                    .productNom(price.nom())
+                    .quantite(itemRequest.getQuantite())
+                    .prixUnitaire(price.prixUnitaire().toDouble())
+                    .totalLigne(totalLigne.toDouble())
+                    .build());
+            sousTotalCents = Math.addExact(sousTotalCents, totalLigne.cents());
         }
 
-        Order saved = orderRepository.save(order);
-        return orderMapper.toResponse(saved);
+        Money sousTotal = Money.ofCents(sousTotalCents);
+
+        // The promo is checked against its caps but no use is taken
+        PricingRuleSet rules = pricingEngine.rules();
+        PricingRuleSet.PromoRule promo = promoBeatingLoyalty(rules, client, sousTotal,
+                rules.promo(request.getCodePromo(), LocalDateTime.now()));
+        boolean promoApplied = promo != null && promoCodeService.isAvailable(promo, client.getId());
+        Totals totals = computeTotals(rules, client, sousTotal, promoApplied ? promo.tauxRemise() : PricingRuleSet.NO_PROMO);
+
+        return OrderQuoteResponse.builder()
+                .clientId(client.getId())
+                .sousTotal(totals.sousTotal().toDouble())
+                .montantRemise(totals.montantRemise().toDouble())
+                .montantHtApresRemise(totals.montantHtApresRemise().toDouble())
+                .tva(totals.tva().toDouble())
+                .totalTtc(totals.totalTtc().toDouble())
+                .codePromo(promoApplied ? promo.code() : null)
+                .items(lines)
+                .build();
+    }
+
+    private Map<Long, Integer> sumQuantitiesByProduct(List<OrderRequest.OrderItemRequest> items) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderRequest.OrderItemRequest item : items) {
+            quantities.merge(item.getProductId(), item.getQuantite(), Integer::sum);
+        }
+        return quantities;
     }
 
     private Order createRejectedOrder(Client client, OrderRequest request) {
@@ -119,12 +326,12 @@ public class OrderServiceImpl implements OrderService {
                 .client(client)
                 .dateCreation(LocalDateTime.now())
                 .status(OrderStatus.REJECTED)
-                .sousTotal(0.0)
-                .montantRemise(0.0)
-                .montantHtApresRemise(0.0)
-                .tva(0.0)
-                .totalTtc(0.0)
-                .montantRestant(0.0)
+                .sousTotal(Money.ZERO)
+                .montantRemise(Money.ZERO)
+                .montantHtApresRemise(Money.ZERO)
+                .tva(Money.ZERO)
+                .totalTtc(Money.ZERO)
+                .montantRestant(Money.ZERO)
                 .tauxTva(TVA_RATE)
                 .orderItems(new ArrayList<>())
                 .build();
@@ -132,91 +339,98 @@ public class OrderServiceImpl implements OrderService {
         return orderRepository.save(order);
     }
 
-    private Double calculateDiscount(CustomerTier tier, Double sousTotal, String promoCode) {
-        Double loyaltyDiscount = 0.0;
+    @Override
+    public OrderResponse getOrderById(Long id) {
+        Order order = getOrderWithItemsById(id);
+        return orderMapper.toResponse(order);
+    }
 
-        // Calculate loyalty discount
-        switch (tier) {
-            case SILVER:
-                if (sousTotal >= 500) {
-                    loyaltyDiscount = sousTotal * 0.05;
-                }
-                break;
-            case GOLD:
-                if (sousTotal >= 800) {
-                    loyaltyDiscount = sousTotal * 0.10;
-                }
-                break;
-            case PLATINUM:
-                if (sousTotal >= 1200) {
-                    loyaltyDiscount = sousTotal * 0.15;
-                }
-                break;
-            default:
-                loyaltyDiscount = 0.0;
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrders(OrderFilterRequest filter) {
+        int size = filter.getSize() == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(filter.getSize(), MAX_PAGE_SIZE));
 
-        // Calculate promo discount
-        Double promoDiscount = 0.0;
-        if (promoCode != null && promoCodeService.isValidPromoCode(promoCode)) {
-            promoDiscount = sousTotal * promoCodeService.getPromoDiscount();
+        Specification<Order> specification = Specification.unrestricted();
+        if (filter.getStatus() != null) {
+            specification = specification.and(OrderSpecifications.hasStatus(filter.getStatus()));
+        }
+        if (filter.getClientId() != null) {
+            specification = specification.and(OrderSpecifications.hasClient(filter.getClientId()));
+        }
+        if (filter.getCodePromo() != null) {
+            specification = specification.and(OrderSpecifications.hasCodePromo(filter.getCodePromo()));
+        }
+        if (filter.getFrom() != null) {
+            specification = specification.and(OrderSpecifications.createdFrom(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            specification = specification.and(OrderSpecifications.createdBefore(filter.getTo()));
+        }
+        if (filter.getCursor() != null) {
+            OrderCursor cursor = OrderCursor.decode(filter.getCursor());
+            specification = specification.and(OrderSpecifications.after(cursor.dateCreation(), cursor.id()));
         }
 
-        // Return the higher discount (not cumulative)
-        return Math.max(loyaltyDiscount, promoDiscount);
-    }
+        // One extra row tells whether there is a next page without a COUNT query
+        List<OrderResponse> orders = orderRepository.findOrderResponses(specification, KEYSET_SORT, size + 1);
+
+        boolean hasNext = orders.size() > size;
+        List<OrderResponse> page = hasNext ? orders.subList(0, size) : orders;
 
-    private Double round(Double value) {
-        return BigDecimal.valueOf(value)
-                .setScale(2, RoundingMode.HALF_UP)
-                .doubleValue();
+        return OrderPageResponse.builder()
+                .items(page)
+                .size(page.size())
+                .nextCursor(hasNext ? OrderCursor.of(page.get(page.size() - 1)).encode() : null)
+                .build();
     }
 
     @Override
-    public OrderResponse getOrderById(Long id) {
-        Order order = getOrderEntityById(id);
-        return orderMapper.toResponse(order);
+    public Order getOrderEntityById(Long id) {
+        return orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
     }
 
     @Override
-    public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(orderMapper::toResponse)
-                .toList();
+    public Order getOrderEntityForUpdate(Long id) {
+        return orderRepository.findForUpdateById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
     }
 
-    @Override
-    public Order getOrderEntityById(Long id) {
-        return orderRepository.findById(id)
+    // Client, items and products in one statement, since the response maps all of them
+    private Order getOrderWithItemsById(Long id) {
+        return orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
     }
 
     @Override
+    @OptimisticRetry
     @Transactional
     public OrderResponse confirmOrder(Long id) {
-        Order order = getOrderEntityById(id);
+        Order order = getOrderWithItemsById(id);
 
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new BusinessException("Only PENDING orders can be confirmed");
         }
 
-        if (order.getMontantRestant() > 0) {
+        if (order.getMontantRestant().isPositive()) {
             throw new BusinessException("Order must be fully paid before confirmation");
         }
 
         order.setStatus(OrderStatus.CONFIRMED);
         Order updated = orderRepository.save(order);
+        stockReservationService.confirm(id);
 
 
-        clientService.updateClientStats(order.getClient().getId(), order.getTotalTtc());
+        clientService.recordOrderStats(order.getClient().getId(), order.getTotalTtc());
 
         return orderMapper.toResponse(updated);
     }
 
     @Override
+    @OptimisticRetry
     @Transactional
     public OrderResponse cancelOrder(Long id) {
-        Order order = getOrderEntityById(id);
+        Order order = getOrderWithItemsById(id);
 
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new BusinessException("Only PENDING orders can be canceled");
@@ -224,9 +438,8 @@ public class OrderServiceImpl implements OrderService {
 
         order.setStatus(OrderStatus.CANCELED);
         Order updated = orderRepository.save(order);
+        stockReservationService.release(id);
 
         return orderMapper.toResponse(updated);
     }
-
-
-}
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package org.example.smartshop.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartshop.entity.Order;
+import org.example.smartshop.enums.PaymentStatus;
+import org.example.smartshop.repositories.OrderRepository;
+import org.example.smartshop.repositories.PaymentRepository;
+import org.example.smartshop.utils.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Recomputes montantEncaisse and montantRestant from the ENCAISSE payments, one id range per transaction.
+// Each chunk holds the order row locks payments take, so no payment lands between the read and the write
+@Slf4j
+@Component
+public class PaidAmountRepairJob {
+
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public PaidAmountRepairJob(OrderRepository orderRepository,
+                               PaymentRepository paymentRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${smartshop.payments.repair-chunk-size:500}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.paymentRepository = paymentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${smartshop.payments.repair-cron:0 30 3 * * *}")
+    public void repair() {
+        int repaired = 0;
+        Chunk chunk = new Chunk(0L, 0, 0);
+        do {
+            Long afterId = chunk.lastId();
+            chunk = transactionTemplate.execute(status -> repairChunk(afterId));
+            repaired += chunk.repaired();
+        } while (chunk.size() == chunkSize);
+
+        if (repaired > 0) {
+            log.warn("Repaired paid amounts on {} orders", repaired);
+        }
+    }
+
+    private Chunk repairChunk(Long afterId) {
+        List<Order> orders = orderRepository.findForUpdateByIdGreaterThanOrderByIdAsc(afterId, Limit.of(chunkSize));
+        if (orders.isEmpty()) {
+            return new Chunk(afterId, 0, 0);
+        }
+
+        // Summed in the database, one row per paid order instead of one per payment
+        Map<Long, Money> encaisse = new HashMap<>();
+        for (PaymentRepository.PaymentTotal total : paymentRepository.sumAmountsByOrderIdInAndStatus(
+                orders.stream().map(Order::getId).toList(), PaymentStatus.ENCAISSE)) {
+            encaisse.put(total.getOrderId(), Money.of(total.getTotal()));
+        }
+
+        // Only drifted orders are modified, so only they are written and get a new version
+        int repaired = 0;
+        for (Order order : orders) {
+            Money expected = encaisse.getOrDefault(order.getId(), Money.ZERO);
+            Money restant = order.getTotalTtc().minus(expected).max(Money.ZERO);
+            if (!expected.equals(order.getMontantEncaisse()) || !restant.equals(order.getMontantRestant())) {
+                order.setMontantEncaisse(expected);
+                order.setMontantRestant(restant);
+                repaired++;
+            }
+        }
+
+        return new Chunk(orders.get(orders.size() - 1).getId(), orders.size(), repaired);
+    }
+
+    private record Chunk(Long lastId, int size, int repaired) {
+    }
+}
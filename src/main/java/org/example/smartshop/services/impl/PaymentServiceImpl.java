@@ -11,13 +11,13 @@ import org.example.smartshop.enums.PaymentStatus;
 import org.example.smartshop.exception.BusinessException;
 import org.example.smartshop.mapper.PaymentMapper;
 import org.example.smartshop.repositories.PaymentRepository;
+import org.example.smartshop.retry.OptimisticRetry;
 import org.example.smartshop.services.OrderService;
 import org.example.smartshop.services.PaymentService;
+import org.example.smartshop.utils.Money;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -30,30 +30,34 @@ public class PaymentServiceImpl implements PaymentService {
     private final OrderService orderService;
     private final PaymentMapper paymentMapper;
 
-    private static final Double CASH_LIMIT = 20000.0;
+    private static final Money CASH_LIMIT = Money.ofCents(2_000_000);
 
     @Override
+    @OptimisticRetry
     @Transactional
     public PaymentResponse createPayment(PaymentRequest request) {
-        Order order = orderService.getOrderEntityById(request.getOrderId());
+        // The order row lock serialises payments on the same order, so the remaining-amount checks hold
+        Order order = orderService.getOrderEntityForUpdate(request.getOrderId());
 
-        if (order.getMontantRestant() <= 0) {
+        if (!order.getMontantRestant().isPositive()) {
             throw new BusinessException("Order is already fully paid");
         }
 
-        if (request.getMontant() > order.getMontantRestant()) {
+        Money montant = Money.of(request.getMontant());
+        if (montant.isGreaterThan(order.getMontantRestant())) {
             throw new BusinessException("Payment amount exceeds remaining amount");
         }
 
         // Validate cash limit
-        if (request.getTypePaiement() == PaymentMethod.ESPECES && request.getMontant() > CASH_LIMIT) {
+        if (request.getTypePaiement() == PaymentMethod.ESPECES && montant.isGreaterThan(CASH_LIMIT)) {
             throw new BusinessException("Cash payment cannot exceed " + CASH_LIMIT + " DH");
         }
 
         // Validate required fields based on payment method
         validatePaymentMethod(request);
 
-        Integer nextNumber = paymentRepository.findMaxNumeroPaiementByOrderId(request.getOrderId()) + 1;
+        Integer nextNumber = order.getDernierNumeroPaiement() + 1;
+        order.setDernierNumeroPaiement(nextNumber);
 
         Payment payment = paymentMapper.toEntity(request);
         payment.setOrder(order);
@@ -73,18 +77,21 @@ public class PaymentServiceImpl implements PaymentService {
 
         Payment saved = paymentRepository.save(payment);
 
-        // Update order remaining amount
-        updateOrderRemainingAmount(order);
+        applyEncaisseDelta(order, encaisseDelta(null, saved.getStatus(), saved.getMontant()));
 
         return paymentMapper.toResponse(saved);
     }
 
     @Override
+    @OptimisticRetry
     @Transactional
     public PaymentResponse updatePaymentStatus(Long id, UpdatePaymentStatusRequest request) {
-        Payment payment = paymentRepository.findById(id)
+        // Payment then order, always in that order, so concurrent transitions apply their deltas one at a time
+        Payment payment = paymentRepository.findForUpdateById(id)
                 .orElseThrow(() -> new BusinessException("Payment not found with id: " + id));
+        Order order = orderService.getOrderEntityForUpdate(payment.getOrder().getId());
 
+        PaymentStatus previousStatus = payment.getStatus();
         payment.setStatus(request.getStatus());
 
         if (request.getDateEncaissement() != null) {
@@ -93,8 +100,7 @@ public class PaymentServiceImpl implements PaymentService {
 
         Payment updated = paymentRepository.save(payment);
 
-        // Update order remaining amount
-        updateOrderRemainingAmount(payment.getOrder());
+        applyEncaisseDelta(order, encaisseDelta(previousStatus, updated.getStatus(), updated.getMontant()));
 
         return paymentMapper.toResponse(updated);
     }
@@ -134,23 +140,23 @@ public class PaymentServiceImpl implements PaymentService {
         }
     }
 
-    private void updateOrderRemainingAmount(Order order) {
-        List<Payment> payments = paymentRepository.findByOrderIdOrderByNumeroPaiementAsc(order.getId());
-
-        Double totalPaid = payments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.ENCAISSE)
-                .mapToDouble(Payment::getMontant)
-                .sum();
-
-        Double remaining = order.getTotalTtc() - totalPaid;
-        order.setMontantRestant(round(Math.max(0, remaining)));
-
-        orderService.getOrderEntityById(order.getId());
+    private Money encaisseDelta(PaymentStatus from, PaymentStatus to, Money montant) {
+        if (from != PaymentStatus.ENCAISSE && to == PaymentStatus.ENCAISSE) {
+            return montant;
+        }
+        if (from == PaymentStatus.ENCAISSE && to != PaymentStatus.ENCAISSE) {
+            return Money.ZERO.minus(montant);
+        }
+        return Money.ZERO;
     }
 
-    private Double round(Double value) {
-        return BigDecimal.valueOf(value)
-                .setScale(2, RoundingMode.HALF_UP)
-                .doubleValue();
+    private void applyEncaisseDelta(Order order, Money delta) {
+        if (delta.isZero()) {
+            return;
+        }
+
+        Money encaisse = order.getMontantEncaisse().plus(delta);
+        order.setMontantEncaisse(encaisse);
+        order.setMontantRestant(order.getTotalTtc().minus(encaisse).max(Money.ZERO));
     }
 }
@@ -0,0 +1,57 @@
+package org.example.smartshop.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartshop.entity.PricingRule;
+import org.example.smartshop.entity.PromoCode;
+import org.example.smartshop.events.PricingRulesChangedEvent;
+import org.example.smartshop.repositories.PricingRuleRepository;
+import org.example.smartshop.repositories.PromoCodeRepository;
+import org.example.smartshop.services.PricingEngine;
+import org.example.smartshop.utils.PricingRuleSet;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Serves orders from a compiled rule set that is rebuilt off the request path and swapped in one step
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PricingEngineImpl implements PricingEngine, SmartInitializingSingleton {
+
+    private final PricingRuleRepository pricingRuleRepository;
+    private final PromoCodeRepository promoCodeRepository;
+
+    private final AtomicReference<PricingRuleSet> rules = new AtomicReference<>(PricingRuleSet.EMPTY);
+
+    @Override
+    public PricingRuleSet rules() {
+        return rules.get();
+    }
+
+    // Runs once every singleton is ready, so Liquibase has already migrated and seeded the schema,
+    // and before the web server accepts orders
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${smartshop.pricing.reload-interval-ms:60000}",
+            initialDelayString = "${smartshop.pricing.reload-interval-ms:60000}")
+    public void reload() {
+        List<PricingRule> pricingRules = pricingRuleRepository.findByActiveTrue();
+        List<PromoCode> promoCodes = promoCodeRepository.findByActiveTrue();
+        rules.set(PricingRuleSet.compile(pricingRules, promoCodes));
+        log.debug("Loaded {} pricing rules and {} promo codes", pricingRules.size(), promoCodes.size());
+    }
+
+    @TransactionalEventListener
+    public void onPricingRulesChanged(PricingRulesChangedEvent event) {
+        reload();
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.smartshop.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.smartshop.dtos.request.PricingRuleRequest;
+import org.example.smartshop.dtos.request.PromoCodeRequest;
+import org.example.smartshop.dtos.response.PricingRuleResponse;
+import org.example.smartshop.dtos.response.PromoCodeResponse;
+import org.example.smartshop.entity.PricingRule;
+import org.example.smartshop.entity.PromoCode;
+import org.example.smartshop.events.PricingRulesChangedEvent;
+import org.example.smartshop.exception.BusinessException;
+import org.example.smartshop.exception.ResourceNotFoundException;
+import org.example.smartshop.mapper.PricingMapper;
+import org.example.smartshop.repositories.PricingRuleRepository;
+import org.example.smartshop.repositories.PromoCodeRepository;
+import org.example.smartshop.services.PricingService;
+import org.example.smartshop.utils.Money;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class PricingServiceImpl implements PricingService {
+
+    private final PricingRuleRepository pricingRuleRepository;
+    private final PromoCodeRepository promoCodeRepository;
+    private final PricingMapper pricingMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public List<PricingRuleResponse> getPricingRules() {
+        return pricingRuleRepository.findAll().stream()
+                .map(pricingMapper::toResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public PricingRuleResponse createPricingRule(PricingRuleRequest request) {
+        if (pricingRuleRepository.existsByTierAndMinSousTotal(request.getTier(), Money.of(request.getMinSousTotal()))) {
+            throw new BusinessException("A pricing rule already exists for " + request.getTier()
+                    + " from " + request.getMinSousTotal());
+        }
+
+        PricingRule rule = PricingRule.builder().build();
+        pricingMapper.updateEntity(request, rule);
+        PricingRule saved = pricingRuleRepository.save(rule);
+        eventPublisher.publishEvent(new PricingRulesChangedEvent());
+        return pricingMapper.toResponse(saved);
+    }
+
+    @Override
+    @Transactional
+    public PricingRuleResponse updatePricingRule(Long id, PricingRuleRequest request) {
+        PricingRule rule = pricingRuleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Pricing rule not found with id: " + id));
+
+        if (pricingRuleRepository.existsByTierAndMinSousTotalAndIdNot(request.getTier(),
+                Money.of(request.getMinSousTotal()), id)) {
+            throw new BusinessException("A pricing rule already exists for " + request.getTier()
+                    + " from " + request.getMinSousTotal());
+        }
+
+        pricingMapper.updateEntity(request, rule);
+        PricingRule updated = pricingRuleRepository.save(rule);
+        eventPublisher.publishEvent(new PricingRulesChangedEvent());
+        return pricingMapper.toResponse(updated);
+    }
+
+    @Override
+    public List<PromoCodeResponse> getPromoCodes() {
+        return promoCodeRepository.findAll().stream()
+                .map(pricingMapper::toResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public PromoCodeResponse createPromoCode(PromoCodeRequest request) {
+        validateWindow(request);
+        if (promoCodeRepository.existsByCode(request.getCode())) {
+            throw new BusinessException("Promo code already exists: " + request.getCode());
+        }
+
+        PromoCode promoCode = PromoCode.builder().build();
+        pricingMapper.updateEntity(request, promoCode);
+        PromoCode saved = promoCodeRepository.save(promoCode);
+        eventPublisher.publishEvent(new PricingRulesChangedEvent());
+        return pricingMapper.toResponse(saved);
+    }
+
+    @Override
+    @Transactional
+    public PromoCodeResponse updatePromoCode(Long id, PromoCodeRequest request) {
+        PromoCode promoCode = promoCodeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Promo code not found with id: " + id));
+
+        validateWindow(request);
+
+        if (promoCodeRepository.existsByCodeAndIdNot(request.getCode(), id)) {
+            throw new BusinessException("Promo code already exists: " + request.getCode());
+        }
+
+        pricingMapper.updateEntity(request, promoCode);
+        PromoCode updated = promoCodeRepository.save(promoCode);
+        eventPublisher.publishEvent(new PricingRulesChangedEvent());
+        return pricingMapper.toResponse(updated);
+    }
+
+    private void validateWindow(PromoCodeRequest request) {
+        if (request.getValidFrom() != null && request.getValidUntil() != null
+                && !request.getValidFrom().isBefore(request.getValidUntil())) {
+            throw new BusinessException("Valid from must be before valid until");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.smartshop.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.smartshop.dtos.response.ProductResponse;
+import org.example.smartshop.events.ProductChangedEvent;
+import org.example.smartshop.events.StockChangedEvent;
+import org.example.smartshop.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Catalog reads only. Rendered products and pages are kept for minutes, stock for seconds and always
+// overlaid at read time. Orders still load and decrement the rows themselves, so nothing here can oversell
+@Component
+public class ProductCatalogCache {
+
+    private final ProductRepository productRepository;
+
+    private final Cache<Long, ProductResponse> products;
+    private final Cache<Pageable, Page<ProductResponse>> pages;
+    private final Cache<Long, Integer> stocks;
+
+    public ProductCatalogCache(ProductRepository productRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${smartshop.catalog.ttl:10m}") Duration ttl,
+                               @Value("${smartshop.catalog.cache-size:10000}") long cacheSize,
+                               @Value("${smartshop.catalog.page-cache-size:500}") long pageCacheSize,
+                               @Value("${smartshop.catalog.stock-ttl:2s}") Duration stockTtl) {
+        this.productRepository = productRepository;
+        this.products = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<Long, ProductResponse>build(), "products");
+        this.pages = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(pageCacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<Pageable, Page<ProductResponse>>build(), "product-pages");
+        this.stocks = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(stockTtl)
+                .recordStats()
+                .<Long, Integer>build(), "product-stock");
+    }
+
+    public ProductResponse getProduct(Long id, Function<Long, ProductResponse> loader) {
+        ProductResponse product = products.get(id, loader);
+        return withStock(product, getStocks(List.of(id)));
+    }
+
+    // Keeps the order of ids and skips the ones the loader could not find
+    public List<ProductResponse> getProducts(List<Long> ids,
+                                             Function<Set<? extends Long>, Map<Long, ProductResponse>> loader) {
+        Map<Long, ProductResponse> found = products.getAll(ids, loader);
+        Map<Long, Integer> foundStocks = getStocks(ids);
+        List<ProductResponse> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductResponse product = found.get(id);
+            if (product != null) {
+                result.add(withStock(product, foundStocks));
+            }
+        }
+        return result;
+    }
+
+    public Page<ProductResponse> getPage(Pageable pageable, Function<Pageable, Page<ProductResponse>> loader) {
+        Page<ProductResponse> page = pages.get(pageable, loader);
+        Map<Long, Integer> pageStocks = getStocks(page.getContent().stream().map(ProductResponse::getId).toList());
+        return page.map(product -> withStock(product, pageStocks));
+    }
+
+    // Every id missing from the stock cache is read in one query
+    private Map<Long, Integer> getStocks(Collection<Long> ids) {
+        return stocks.getAll(ids, this::loadStocks);
+    }
+
+    private Map<Long, Integer> loadStocks(Set<? extends Long> ids) {
+        Map<Long, Integer> loaded = new HashMap<>();
+        for (ProductRepository.ProductStock stock : productRepository.findStocksByIdIn(List.copyOf(ids))) {
+            loaded.put(stock.getId(), stock.getStock());
+        }
+        return loaded;
+    }
+
+    // Cached responses are shared, so the stock goes on a copy
+    private static ProductResponse withStock(ProductResponse product, Map<Long, Integer> stocks) {
+        return ProductResponse.builder()
+                .id(product.getId())
+                .nom(product.getNom())
+                .description(product.getDescription())
+                .prixUnitaire(product.getPrixUnitaire())
+                .stock(stocks.getOrDefault(product.getId(), product.getStock()))
+                .build();
+    }
+
+    // Any product change can move it between pages, so every page goes
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        products.invalidate(event.productId());
+        stocks.invalidate(event.productId());
+        pages.invalidateAll();
+    }
+
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent event) {
+        stocks.invalidateAll(event.productIds());
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.smartshop.services.impl;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.smartshop.entity.Product;
+import org.example.smartshop.events.ProductChangedEvent;
+import org.example.smartshop.repositories.ProductRepository;
+import org.example.smartshop.services.ProductPriceCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Prices for quotes only; orders keep reading the product rows they lock and decrement
+@Service
+public class ProductPriceCacheImpl implements ProductPriceCache {
+
+    private final LoadingCache<Long, ProductPrice> prices;
+
+    public ProductPriceCacheImpl(ProductRepository productRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${smartshop.quote.price-ttl:30s}") Duration ttl,
+                                 @Value("${smartshop.quote.price-cache-size:10000}") long cacheSize) {
+        this.prices = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(new CacheLoader<Long, ProductPrice>() {
+                    @Override
+                    public ProductPrice load(Long id) {
+                        return productRepository.findById(id)
+                                .map(ProductPriceCacheImpl::toPrice)
+                                .orElse(null);
+                    }
+
+                    // Every id missing from a quote is fetched in one query
+                    @Override
+                    public Map<Long, ProductPrice> loadAll(Set<? extends Long> ids) {
+                        Map<Long, ProductPrice> loaded = new HashMap<>();
+                        for (Product product : productRepository.findAllById(List.copyOf(ids))) {
+                            loaded.put(product.getId(), toPrice(product));
+                        }
+                        return loaded;
+                    }
+                }), "product-prices");
+    }
+
+    private static ProductPrice toPrice(Product product) {
+        return new ProductPrice(product.getId(), product.getNom(), product.getPrixUnitaire());
+    }
+
+    @Override
+    public Map<Long, ProductPrice> getPrices(Collection<Long> ids) {
+        return prices.getAll(ids);
+    }
+
+    @Override
+    public void invalidate(Long productId) {
+        prices.invalidate(productId);
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.productId());
+    }
+}
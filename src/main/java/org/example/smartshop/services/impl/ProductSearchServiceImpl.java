@@ -0,0 +1,56 @@
+package org.example.smartshop.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartshop.events.ProductChangedEvent;
+import org.example.smartshop.repositories.ProductRepository;
+import org.example.smartshop.services.ProductSearchService;
+import org.example.smartshop.utils.ProductSearchIndex;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+// The table is read once at startup; after that each product event re-reads only that product
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductSearchServiceImpl implements ProductSearchService, SmartInitializingSingleton {
+
+    private static final int LOAD_CHUNK_SIZE = 5000;
+
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long afterId = 0;
+        List<ProductRepository.ProductSearchDocument> chunk;
+        do {
+            chunk = productRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, LOAD_CHUNK_SIZE));
+            for (ProductRepository.ProductSearchDocument document : chunk) {
+                index.index(document.getId(), document.getNom(), document.getDescription());
+            }
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == LOAD_CHUNK_SIZE);
+
+        log.info("Indexed {} products for search", index.size());
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    // Deleted and soft-deleted products come back empty and leave the index
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        productRepository.findSearchDocumentById(event.productId()).ifPresentOrElse(
+                document -> index.index(document.getId(), document.getNom(), document.getDescription()),
+                () -> index.remove(event.productId()));
+    }
+}
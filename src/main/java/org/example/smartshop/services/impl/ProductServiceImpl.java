@@ -1,25 +1,53 @@
 package org.example.smartshop.services.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.smartshop.dtos.request.ProductFilterRequest;
 import org.example.smartshop.dtos.request.ProductRequest;
+import org.example.smartshop.dtos.response.ProductPageResponse;
 import org.example.smartshop.dtos.response.ProductResponse;
 import org.example.smartshop.entity.Product;
+import org.example.smartshop.enums.ProductSort;
+import org.example.smartshop.events.ProductChangedEvent;
+import org.example.smartshop.events.StockChangedEvent;
 import org.example.smartshop.exception.BusinessException;
 import org.example.smartshop.exception.ResourceNotFoundException;
 import org.example.smartshop.mapper.ProductMapper;
 import org.example.smartshop.repositories.ProductRepository;
+import org.example.smartshop.repositories.ProductSpecifications;
+import org.example.smartshop.retry.OptimisticRetry;
+import org.example.smartshop.services.ProductSearchService;
 import org.example.smartshop.services.ProductService;
+import org.example.smartshop.utils.Money;
+import org.example.smartshop.utils.ProductCursor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductSearchService productSearchService;
+
+    private static final int MAX_SEARCH_SIZE = 100;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Override
     @Transactional
@@ -27,25 +55,28 @@ public class ProductServiceImpl implements ProductService {
         Product product = productMapper.toEntity(request);
         product.setDeleted(false);
         Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId()));
         return productMapper.toResponse(saved);
     }
 
     @Override
     public ProductResponse getProductById(Long id) {
-        Product product = getProductEntityById(id);
-        return productMapper.toResponse(product);
+        return productCatalogCache.getProduct(id, key -> productMapper.toResponse(getProductEntityById(key)));
     }
 
     @Override
+    @OptimisticRetry
     @Transactional
     public ProductResponse updateProduct(Long id, ProductRequest request) {
         Product product = getProductEntityById(id);
         productMapper.updateEntity(request, product);
         Product updated = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
         return productMapper.toResponse(updated);
     }
 
     @Override
+    @OptimisticRetry
     @Transactional
     public void deleteProduct(Long id) {
         Product product = getProductEntityById(id);
@@ -56,12 +87,75 @@ public class ProductServiceImpl implements ProductService {
         } else {
             productRepository.delete(product);
         }
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
     }
 
     @Override
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
-        return productRepository.findByDeletedFalse(pageable)
-                .map(productMapper::toResponse);
+        return productCatalogCache.getPage(pageable, key -> productRepository.findByDeletedFalse(key)
+                .map(productMapper::toResponse));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageResponse browseProducts(ProductFilterRequest filter) {
+        int size = filter.getSize() == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(filter.getSize(), MAX_PAGE_SIZE));
+        ProductSort sort = filter.getSort() == null ? ProductSort.ID : filter.getSort();
+
+        if (filter.getMinPrix() != null && filter.getMaxPrix() != null && filter.getMinPrix() > filter.getMaxPrix()) {
+            throw new BusinessException("minPrix must not be greater than maxPrix");
+        }
+
+        Specification<Product> specification = ProductSpecifications.notDeleted();
+        if (filter.getMinPrix() != null) {
+            specification = specification.and(ProductSpecifications.prixFrom(Money.of(filter.getMinPrix())));
+        }
+        if (filter.getMaxPrix() != null) {
+            specification = specification.and(ProductSpecifications.prixTo(Money.of(filter.getMaxPrix())));
+        }
+        if (Boolean.TRUE.equals(filter.getInStock())) {
+            specification = specification.and(ProductSpecifications.inStock());
+        }
+        if (filter.getNom() != null && !filter.getNom().isBlank()) {
+            specification = specification.and(ProductSpecifications.nomStartsWith(filter.getNom().trim()));
+        }
+        if (filter.getCursor() != null) {
+            specification = specification.and(ProductSpecifications.after(ProductCursor.decode(filter.getCursor(), sort)));
+        }
+
+        // One extra row tells whether there is a next page without a COUNT query
+        List<Product> products = productRepository.findBy(specification,
+                query -> query.sortBy(keysetSort(sort)).limit(size + 1).all());
+
+        boolean hasNext = products.size() > size;
+        List<Product> page = hasNext ? products.subList(0, size) : products;
+
+        return ProductPageResponse.builder()
+                .items(page.stream().map(productMapper::toResponse).toList())
+                .size(page.size())
+                .nextCursor(hasNext ? ProductCursor.of(sort, page.get(page.size() - 1)).encode() : null)
+                .build();
+    }
+
+    // Each sort ends on id so the keyset is unique, and matches a partial index on non-deleted products
+    private static Sort keysetSort(ProductSort sort) {
+        return switch (sort) {
+            case ID -> Sort.by(Sort.Order.asc("id"));
+            case PRIX_ASC -> Sort.by(Sort.Order.asc("prixUnitaire"), Sort.Order.asc("id"));
+            case PRIX_DESC -> Sort.by(Sort.Order.desc("prixUnitaire"), Sort.Order.desc("id"));
+            case NOM -> Sort.by(Sort.Order.asc("nom"), Sort.Order.asc("id"));
+        };
+    }
+
+    @Override
+    public List<ProductResponse> searchProducts(String query, int size) {
+        List<Long> ids = productSearchService.search(query, Math.max(1, Math.min(size, MAX_SEARCH_SIZE)));
+        return productCatalogCache.getProducts(ids, this::loadResponses);
+    }
+
+    private Map<Long, ProductResponse> loadResponses(Set<? extends Long> ids) {
+        return productRepository.findAllById(List.copyOf(ids)).stream()
+                .collect(Collectors.toMap(Product::getId, productMapper::toResponse));
     }
 
     @Override
@@ -70,16 +164,54 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
     }
 
+    @Override
+    public Map<Long, Product> getProductEntitiesByIds(Collection<Long> ids) {
+        Map<Long, Product> products = findProductEntitiesByIds(ids);
+
+        for (Long id : ids) {
+            if (!products.containsKey(id)) {
+                throw new ResourceNotFoundException("Product not found with id: " + id);
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public Map<Long, Product> findProductEntitiesByIds(Collection<Long> ids) {
+        return productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
     @Override
     @Transactional
     public void decrementStock(Long productId, Integer quantity) {
-        Product product = getProductEntityById(productId);
-
-        if (product.getStock() < quantity) {
+        if (productRepository.decrementStockIfAvailable(productId, quantity) == 0) {
+            Product product = getProductEntityById(productId);
             throw new BusinessException("Insufficient stock for product: " + product.getNom());
         }
+        eventPublisher.publishEvent(new StockChangedEvent(List.of(productId)));
+    }
+
+    @Override
+    @Transactional
+    public List<Long> decrementStocks(Map<Long, Integer> quantities) {
+        List<Long> failed = productRepository.decrementStocks(quantities);
+
+        // All or nothing: give back the lines that did go through
+        if (!failed.isEmpty()) {
+            Map<Long, Integer> applied = new HashMap<>(quantities);
+            applied.keySet().removeAll(failed);
+            productRepository.incrementStocks(applied);
+        } else {
+            eventPublisher.publishEvent(new StockChangedEvent(List.copyOf(quantities.keySet())));
+        }
+        return failed;
+    }
 
-        product.setStock(product.getStock() - quantity);
-        productRepository.save(product);
+    @Override
+    @Transactional
+    public void incrementStocks(Map<Long, Integer> quantities) {
+        productRepository.incrementStocks(quantities);
+        eventPublisher.publishEvent(new StockChangedEvent(List.copyOf(quantities.keySet())));
     }
 }
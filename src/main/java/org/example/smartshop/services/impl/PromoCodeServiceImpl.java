@@ -1,26 +1,245 @@
 package org.example.smartshop.services.impl;
 
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartshop.entity.PromoRedemption;
+import org.example.smartshop.repositories.PromoRedemptionRepository;
 import org.example.smartshop.services.PromoCodeService;
+import org.example.smartshop.utils.PricingRuleSet;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Set;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
+// Enforces promo code caps with in-memory CAS counters seeded once per code from promo_redemptions,
+// and writes committed redemptions back to that table in batches
+@Slf4j
 @Service
-public class PromoCodeServiceImpl implements PromoCodeService {
+public class PromoCodeServiceImpl implements PromoCodeService, SmartInitializingSingleton {
 
-    private static final Set<String> VALID_PROMO_CODES = Set.of(
-            "PROMO-2024", "PROMO-NOEL", "PROMO-SALE", "PROMO-VIP1"
-    );
+    private final PromoRedemptionRepository promoRedemptionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
 
-    private static final Double PROMO_DISCOUNT_PERCENTAGE = 0.05;
+    private final ConcurrentHashMap<Long, PromoUsage> usages = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<PromoRedemption> pending = new ConcurrentLinkedQueue<>();
+    private final LongAdder pendingCount = new LongAdder();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "promo-redemptions-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PromoCodeServiceImpl(PromoRedemptionRepository promoRedemptionRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${smartshop.promo.redemption-batch-size:500}") int batchSize) {
+        this.promoRedemptionRepository = promoRedemptionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    // Counters are seeded from promo_redemptions, so redemptions still queued when the last run stopped are restored first
+    @Override
+    public void afterSingletonsInstantiated() {
+        int restored = promoRedemptionRepository.backfillFromOrders();
+        if (restored > 0) {
+            log.warn("Restored {} promo redemptions from orders", restored);
+        }
+    }
+
+    @Override
+    public PromoReservation reserve(PricingRuleSet.PromoRule promo, Long clientId) {
+        PromoUsage usage = usages.computeIfAbsent(promo.id(), this::loadUsage);
+        if (!usage.tryAcquire(clientId, promo.maxUsages(), promo.maxUsagesPerClient())) {
+            return null;
+        }
+
+        Reservation reservation = new Reservation(promo.id(), usage, clientId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(reservation);
+        }
+        return reservation;
+    }
 
     @Override
-    public boolean isValidPromoCode(String code) {
-        return code != null && VALID_PROMO_CODES.contains(code);
+    public boolean isAvailable(PricingRuleSet.PromoRule promo, Long clientId) {
+        return usages.computeIfAbsent(promo.id(), this::loadUsage)
+                .isAvailable(clientId, promo.maxUsages(), promo.maxUsagesPerClient());
+    }
+
+    private PromoUsage loadUsage(Long promoCodeId) {
+        PromoUsage usage = new PromoUsage();
+        for (PromoRedemptionRepository.ClientRedemptions row : promoRedemptionRepository.countByClient(promoCodeId)) {
+            usage.byClient.put(row.getClientId(), new AtomicInteger((int) row.getRedemptions()));
+            usage.used.addAndGet((int) row.getRedemptions());
+        }
+        return usage;
+    }
+
+    private void enqueue(PromoRedemption redemption) {
+        pending.add(redemption);
+        pendingCount.increment();
+        if (pendingCount.sum() >= batchSize) {
+            flushExecutor.execute(this::flushRedemptions);
+        }
     }
 
     @Override
-    public Double getPromoDiscount() {
-        return PROMO_DISCOUNT_PERCENTAGE;
+    @Scheduled(fixedDelayString = "${smartshop.promo.flush-interval-ms:1000}")
+    public void flushRedemptions() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            List<PromoRedemption> batch = new ArrayList<>(batchSize);
+            PromoRedemption redemption;
+            while ((redemption = pending.poll()) != null) {
+                batch.add(redemption);
+                if (batch.size() == batchSize) {
+                    if (!write(batch)) {
+                        return;
+                    }
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private boolean write(List<PromoRedemption> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> promoRedemptionRepository.insertAll(batch));
+        } catch (DataIntegrityViolationException e) {
+            // One duplicate must not hold back the whole batch; write row by row and drop the ones already stored
+            return writeEach(batch);
+        } catch (RuntimeException e) {
+            // Counters already account for these, they are retried on the next flush
+            pending.addAll(batch);
+            log.error("Failed to write promo redemptions", e);
+            return false;
+        }
+        pendingCount.add(-batch.size());
+        return true;
+    }
+
+    private boolean writeEach(List<PromoRedemption> batch) {
+        List<PromoRedemption> failed = new ArrayList<>();
+        for (PromoRedemption redemption : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> promoRedemptionRepository.insertAll(List.of(redemption)));
+            } catch (DataIntegrityViolationException duplicate) {
+                log.warn("Skipping duplicate promo redemption for order {}", redemption.getOrderId());
+            } catch (RuntimeException e) {
+                failed.add(redemption);
+                log.error("Failed to write promo redemption for order {}", redemption.getOrderId(), e);
+            }
+        }
+        // Only the rows written or dropped leave the queue; the failed ones go back for the next flush
+        pending.addAll(failed);
+        pendingCount.add(failed.size() - batch.size());
+        return failed.isEmpty();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flushRedemptions();
+    }
+
+    private static final class PromoUsage {
+
+        private final AtomicInteger used = new AtomicInteger();
+        private final ConcurrentHashMap<Long, AtomicInteger> byClient = new ConcurrentHashMap<>();
+
+        private boolean tryAcquire(Long clientId, int maxUsages, int maxUsagesPerClient) {
+            AtomicInteger clientUsed = byClient.computeIfAbsent(clientId, id -> new AtomicInteger());
+            if (!increment(clientUsed, maxUsagesPerClient)) {
+                return false;
+            }
+            if (!increment(used, maxUsages)) {
+                clientUsed.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        private boolean isAvailable(Long clientId, int maxUsages, int maxUsagesPerClient) {
+            AtomicInteger clientUsed = byClient.get(clientId);
+            return used.get() < maxUsages && (clientUsed == null || clientUsed.get() < maxUsagesPerClient);
+        }
+
+        private void release(Long clientId) {
+            byClient.get(clientId).decrementAndGet();
+            used.decrementAndGet();
+        }
+
+        // Never moves past the cap, however many threads race for the last use
+        private static boolean increment(AtomicInteger counter, int max) {
+            int current;
+            do {
+                current = counter.get();
+                if (current >= max) {
+                    return false;
+                }
+            } while (!counter.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+
+    private final class Reservation implements PromoReservation, TransactionSynchronization {
+
+        private final Long promoCodeId;
+        private final PromoUsage usage;
+        private final Long clientId;
+        private Long orderId;
+
+        private Reservation(Long promoCodeId, PromoUsage usage, Long clientId) {
+            this.promoCodeId = promoCodeId;
+            this.usage = usage;
+            this.clientId = clientId;
+        }
+
+        @Override
+        public void redeem(Long orderId) {
+            this.orderId = orderId;
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                afterCompletion(STATUS_COMMITTED);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED && orderId != null) {
+                enqueue(PromoRedemption.builder()
+                        .promoCodeId(promoCodeId)
+                        .clientId(clientId)
+                        .orderId(orderId)
+                        .redeemedAt(LocalDateTime.now())
+                        .build());
+            } else {
+                usage.release(clientId);
+            }
+        }
     }
 }
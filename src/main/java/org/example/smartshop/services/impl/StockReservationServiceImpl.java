@@ -0,0 +1,121 @@
+package org.example.smartshop.services.impl;
+
+import org.example.smartshop.entity.Order;
+import org.example.smartshop.entity.OrderItem;
+import org.example.smartshop.entity.StockReservation;
+import org.example.smartshop.enums.OrderStatus;
+import org.example.smartshop.enums.ReservationStatus;
+import org.example.smartshop.events.StockReservedEvent;
+import org.example.smartshop.repositories.OrderRepository;
+import org.example.smartshop.repositories.StockReservationRepository;
+import org.example.smartshop.services.StockAllocator;
+import org.example.smartshop.services.StockReservationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final OrderRepository orderRepository;
+    private final StockAllocator stockAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration reservationTtl;
+
+    public StockReservationServiceImpl(StockReservationRepository stockReservationRepository,
+                                       OrderRepository orderRepository,
+                                       StockAllocator stockAllocator,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${smartshop.reservation.ttl:72h}") Duration reservationTtl) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.orderRepository = orderRepository;
+        this.stockAllocator = stockAllocator;
+        this.eventPublisher = eventPublisher;
+        this.reservationTtl = reservationTtl;
+    }
+
+    @Override
+    @Transactional
+    public void reserve(Order order) {
+        LocalDateTime expiresAt = order.getDateCreation().plus(reservationTtl);
+
+        Map<Long, StockReservation> reservations = new LinkedHashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            reservations.merge(item.getProduct().getId(),
+                    StockReservation.builder()
+                            .order(order)
+                            .product(item.getProduct())
+                            .quantite(item.getQuantite())
+                            .expiresAt(expiresAt)
+                            .build(),
+                    (existing, extra) -> {
+                        existing.setQuantite(existing.getQuantite() + extra.getQuantite());
+                        return existing;
+                    });
+        }
+
+        stockReservationRepository.saveAll(reservations.values());
+        eventPublisher.publishEvent(new StockReservedEvent(order.getId(), expiresAt));
+    }
+
+    @Override
+    @Transactional
+    public void confirm(Long orderId) {
+        stockReservationRepository.updateStatusByOrderId(orderId, ReservationStatus.ACTIVE, ReservationStatus.CONFIRMED);
+    }
+
+    @Override
+    @Transactional
+    public void release(Long orderId) {
+        releaseActive(List.of(orderId), LocalDateTime.MAX);
+    }
+
+    @Override
+    @Transactional
+    public void expire(Collection<Long> orderIds) {
+        // An order with a payment keeps its stock until it is confirmed or canceled, however late the payment came
+        List<Long> unpaid = orderRepository.findUnpaidForUpdateByIdIn(orderIds, OrderStatus.PENDING).stream()
+                .filter(order -> order.getMontantEncaisse().isZero())
+                .map(Order::getId)
+                .toList();
+        if (unpaid.isEmpty()) {
+            return;
+        }
+
+        Set<Long> expired = releaseActive(unpaid, LocalDateTime.now());
+        if (!expired.isEmpty()) {
+            orderRepository.updateStatusByIdIn(expired, OrderStatus.PENDING, OrderStatus.CANCELED);
+        }
+    }
+
+    private Set<Long> releaseActive(Collection<Long> orderIds, LocalDateTime dueBy) {
+        // Row locks make a concurrent cancel and sweep release each reservation only once
+        List<StockReservation> reservations = stockReservationRepository
+                .findByOrderIdInAndStatus(orderIds, ReservationStatus.ACTIVE).stream()
+                .filter(reservation -> !reservation.getExpiresAt().isAfter(dueBy))
+                .toList();
+
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (StockReservation reservation : reservations) {
+            reservation.setStatus(ReservationStatus.RELEASED);
+            quantities.merge(reservation.getProduct().getId(), reservation.getQuantite(), Integer::sum);
+        }
+
+        stockAllocator.release(quantities);
+        return reservations.stream()
+                .map(reservation -> reservation.getOrder().getId())
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.smartshop.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.smartshop.events.StockReservedEvent;
+import org.example.smartshop.enums.ReservationStatus;
+import org.example.smartshop.repositories.StockReservationRepository;
+import org.example.smartshop.services.StockReservationService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockReservationSweeper {
+
+    private final StockReservationService stockReservationService;
+    private final StockReservationRepository stockReservationRepository;
+
+    private final DelayQueue<Expiry> queue = new DelayQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveReservations() {
+        stockReservationRepository.findExpiriesByStatus(ReservationStatus.ACTIVE)
+                .forEach(view -> queue.add(new Expiry(view.getOrderId(), view.getExpiresAt())));
+    }
+
+    @TransactionalEventListener
+    public void onStockReserved(StockReservedEvent event) {
+        queue.add(new Expiry(event.orderId(), event.expiresAt()));
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.reservation.sweep-interval-ms:30000}")
+    public void sweep() {
+        List<Expiry> due = new ArrayList<>();
+        queue.drainTo(due);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Set<Long> orderIds = due.stream().map(Expiry::orderId).collect(Collectors.toSet());
+        try {
+            stockReservationService.expire(orderIds);
+        } catch (RuntimeException e) {
+            queue.addAll(due);
+            log.error("Failed to expire stock reservations for {} orders", orderIds.size(), e);
+        }
+    }
+
+    record Expiry(Long orderId, LocalDateTime expiresAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(LocalDateTime.now(), expiresAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return expiresAt.compareTo(((Expiry) other).expiresAt);
+        }
+    }
+}
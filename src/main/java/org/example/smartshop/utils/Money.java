@@ -0,0 +1,111 @@
+package org.example.smartshop.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Amount in centimes; arithmetic stays on longs and only rates round, HALF_UP like the NUMERIC(19,2) columns
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final long BASIS_POINTS = 10_000;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    // Boundary conversion for DTO values; goes through the decimal representation so 1.005 becomes 1.01
+    public static Money of(double amount) {
+        return of(BigDecimal.valueOf(amount));
+    }
+
+    public static Money of(BigDecimal amount) {
+        return ofCents(amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    // 0.2 -> 2000; rates are stored as doubles with at most four decimals
+    public static long basisPoints(double rate) {
+        return Math.round(rate * BASIS_POINTS);
+    }
+
+    public static long applyRate(long cents, long basisPoints) {
+        long product = Math.multiplyExact(cents, basisPoints);
+        long quotient = product / BASIS_POINTS;
+        long remainder = product % BASIS_POINTS;
+        if (Math.abs(remainder) * 2 >= BASIS_POINTS) {
+            quotient += Long.signum(product);
+        }
+        return quotient;
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(int quantity) {
+        return ofCents(Math.multiplyExact(cents, quantity));
+    }
+
+    public Money applyRate(long basisPoints) {
+        return ofCents(applyRate(cents, basisPoints));
+    }
+
+    public Money max(Money other) {
+        return cents >= other.cents ? this : other;
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return cents > other.cents;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    // Division is correctly rounded, so this is the double closest to the decimal amount
+    public double toDouble() {
+        return cents / 100.0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money money && money.cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
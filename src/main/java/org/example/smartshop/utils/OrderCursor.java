@@ -0,0 +1,34 @@
+package org.example.smartshop.utils;
+
+import org.example.smartshop.dtos.response.OrderResponse;
+import org.example.smartshop.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record OrderCursor(LocalDateTime dateCreation, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static OrderCursor of(OrderResponse order) {
+        return new OrderCursor(order.getDateCreation(), order.getId());
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = dateCreation + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
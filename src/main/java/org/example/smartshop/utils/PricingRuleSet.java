@@ -0,0 +1,111 @@
+package org.example.smartshop.utils;
+
+import org.example.smartshop.entity.PricingRule;
+import org.example.smartshop.entity.PromoCode;
+import org.example.smartshop.enums.CustomerTier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable snapshot of the active pricing rules; evaluation only reads primitive arrays and a prebuilt map.
+// Thresholds are in centimes and rates in basis points, so a discount is Money.applyRate of the result
+public final class PricingRuleSet {
+
+    public static final long NO_PROMO = -1;
+
+    public static final PricingRuleSet EMPTY = compile(List.of(), List.of());
+
+    // Indexed by tier ordinal, thresholds ascending, each rate being the best one reachable at its threshold
+    private final long[][] seuils;
+    private final long[][] taux;
+    private final Map<String, PromoRule> promoRules;
+
+    private PricingRuleSet(long[][] seuils, long[][] taux, Map<String, PromoRule> promoRules) {
+        this.seuils = seuils;
+        this.taux = taux;
+        this.promoRules = promoRules;
+    }
+
+    public static PricingRuleSet compile(Collection<PricingRule> rules, Collection<PromoCode> promoCodes) {
+        CustomerTier[] tiers = CustomerTier.values();
+        long[][] seuils = new long[tiers.length][];
+        long[][] taux = new long[tiers.length][];
+
+        for (CustomerTier tier : tiers) {
+            List<PricingRule> tierRules = new ArrayList<>();
+            for (PricingRule rule : rules) {
+                if (rule.getTier() == tier && Boolean.TRUE.equals(rule.getActive())) {
+                    tierRules.add(rule);
+                }
+            }
+            tierRules.sort(Comparator.comparing(PricingRule::getMinSousTotal));
+
+            long[] tierSeuils = new long[tierRules.size()];
+            long[] tierTaux = new long[tierRules.size()];
+            long best = 0;
+            for (int i = 0; i < tierRules.size(); i++) {
+                best = Math.max(best, Money.basisPoints(tierRules.get(i).getTauxRemise()));
+                tierSeuils[i] = tierRules.get(i).getMinSousTotal().cents();
+                tierTaux[i] = best;
+            }
+            seuils[tier.ordinal()] = tierSeuils;
+            taux[tier.ordinal()] = tierTaux;
+        }
+
+        Map<String, PromoRule> promoRules = new HashMap<>();
+        for (PromoCode promoCode : promoCodes) {
+            if (Boolean.TRUE.equals(promoCode.getActive())) {
+                promoRules.put(promoCode.getCode(), new PromoRule(
+                        promoCode.getId(),
+                        promoCode.getCode(),
+                        Money.basisPoints(promoCode.getTauxRemise()),
+                        promoCode.getValidFrom(),
+                        promoCode.getValidUntil(),
+                        promoCode.getMaxUsages() == null ? Integer.MAX_VALUE : promoCode.getMaxUsages(),
+                        promoCode.getMaxUsagesPerClient() == null ? Integer.MAX_VALUE : promoCode.getMaxUsagesPerClient()));
+            }
+        }
+
+        return new PricingRuleSet(seuils, taux, Map.copyOf(promoRules));
+    }
+
+    public long loyaltyRate(CustomerTier tier, Money sousTotal) {
+        long[] tierSeuils = seuils[tier.ordinal()];
+        for (int i = tierSeuils.length - 1; i >= 0; i--) {
+            if (sousTotal.cents() >= tierSeuils[i]) {
+                return taux[tier.ordinal()][i];
+            }
+        }
+        return 0;
+    }
+
+    // Null when the code is missing, unknown, inactive or outside its validity window
+    public PromoRule promo(String code, LocalDateTime at) {
+        if (code == null) {
+            return null;
+        }
+        PromoRule rule = promoRules.get(code);
+        return rule != null && rule.isValidAt(at) ? rule : null;
+    }
+
+    // Loyalty and promo discounts are not cumulative, the higher one wins
+    public long discountRate(CustomerTier tier, Money sousTotal, long promoRate) {
+        return Math.max(loyaltyRate(tier, sousTotal), promoRate);
+    }
+
+    // tauxRemise in basis points; caps are Integer.MAX_VALUE when the code has none
+    public record PromoRule(Long id, String code, long tauxRemise,
+                            LocalDateTime validFrom, LocalDateTime validUntil,
+                            int maxUsages, int maxUsagesPerClient) {
+
+        public boolean isValidAt(LocalDateTime at) {
+            return (validFrom == null || !at.isBefore(validFrom))
+                    && (validUntil == null || at.isBefore(validUntil));
+        }
+    }
+}
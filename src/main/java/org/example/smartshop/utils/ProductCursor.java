@@ -0,0 +1,56 @@
+package org.example.smartshop.utils;
+
+import org.example.smartshop.entity.Product;
+import org.example.smartshop.enums.ProductSort;
+import org.example.smartshop.exception.BusinessException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// The sort key goes last in the raw form, so a nom containing the separator still decodes
+public record ProductCursor(ProductSort sort, Long id, String value) {
+
+    private static final String SEPARATOR = "|";
+
+    public static ProductCursor of(ProductSort sort, Product product) {
+        String value = switch (sort) {
+            case ID -> "";
+            case PRIX_ASC, PRIX_DESC -> product.getPrixUnitaire().toString();
+            case NOM -> product.getNom();
+        };
+        return new ProductCursor(sort, product.getId(), value);
+    }
+
+    public static ProductCursor decode(String cursor, ProductSort sort) {
+        ProductCursor decoded;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int second = raw.indexOf(SEPARATOR, first + 1);
+            decoded = new ProductCursor(ProductSort.valueOf(raw.substring(0, first)),
+                    Long.parseLong(raw.substring(first + 1, second)),
+                    raw.substring(second + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+
+        if (decoded.sort() != sort) {
+            throw new BusinessException("Cursor was issued for sort " + decoded.sort());
+        }
+        return decoded;
+    }
+
+    public Money prix() {
+        try {
+            return Money.of(new BigDecimal(value));
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = sort + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
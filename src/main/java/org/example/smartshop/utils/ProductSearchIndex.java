@@ -0,0 +1,329 @@
+package org.example.smartshop.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Inverted index over product nom and description. Every (re)indexed product gets the next doc id, so each
+// posting list stays sorted and a query is merges of sorted arrays. Replaced and removed docs are only
+// tombstoned, and dropped by a compaction once they outnumber the live ones
+public final class ProductSearchIndex {
+
+    private static final int NOM_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final float PREFIX_FACTOR = 0.5f;
+    private static final int MIN_DEAD_DOCS_TO_COMPACT = 1024;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "le", "la", "les", "un", "une", "des", "du", "de", "et", "ou", "en", "au", "aux",
+            "pour", "par", "avec", "sans", "sur", "sous", "dans", "ce", "cet", "cette", "ces",
+            "son", "sa", "ses", "qu", "que", "qui", "est");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> docsByProduct = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private long[] products = new long[1024];
+    private int maxDoc;
+    private int deadDocs;
+
+    // Lowercase, accents and ligatures folded, elisions split off, stop words dropped and plurals trimmed
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        String folded = MARKS.matcher(Normalizer.normalize(text.toLowerCase(Locale.FRENCH), Normalizer.Form.NFD))
+                .replaceAll("")
+                .replace("\u0153", "oe")
+                .replace("\u00e6", "ae");
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (token.length() >= 2 && !STOP_WORDS.contains(token)) {
+                tokens.add(stem(token));
+            }
+        }
+        return tokens;
+    }
+
+    private static String stem(String token) {
+        if (token.length() > 3 && (token.endsWith("s") || token.endsWith("x"))) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+
+    public void index(Long productId, String nom, String description) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String term : tokenize(nom)) {
+            weights.merge(term, NOM_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(description)) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            if (!weights.isEmpty()) {
+                int doc = maxDoc++;
+                if (doc == products.length) {
+                    products = Arrays.copyOf(products, products.length * 2);
+                }
+                products[doc] = productId;
+                live.set(doc);
+                docsByProduct.put(productId, doc);
+                for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                    terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long productId) {
+        Integer doc = docsByProduct.remove(productId);
+        if (doc != null) {
+            live.clear(doc);
+            deadDocs++;
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Product ids matching every query token, best first; a token matches whole words and word prefixes
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Matches result = null;
+            for (String token : tokens) {
+                Matches matches = match(token);
+                result = result == null ? matches : result.intersect(matches);
+                if (result.size == 0) {
+                    return List.of();
+                }
+            }
+            return result.top(limit, products);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Matches match(String token) {
+        SortedMap<String, Postings> expansions = terms.subMap(token, token + Character.MAX_VALUE);
+        int liveDocs = docsByProduct.size();
+
+        if (expansions.size() == 1) {
+            Map.Entry<String, Postings> only = expansions.entrySet().iterator().next();
+            Postings postings = only.getValue();
+            float factor = score(only.getKey(), token, postings, liveDocs);
+            Matches matches = new Matches(postings.size);
+            for (int i = 0; i < postings.size; i++) {
+                if (live.get(postings.docs[i])) {
+                    matches.add(postings.docs[i], postings.weights[i] * factor);
+                }
+            }
+            return matches;
+        }
+
+        // Several words share the prefix: sort (doc, score) pairs by doc and keep each doc's best word
+        int total = 0;
+        for (Postings postings : expansions.values()) {
+            total += postings.size;
+        }
+        long[] entries = new long[total];
+        int count = 0;
+        for (Map.Entry<String, Postings> entry : expansions.entrySet()) {
+            Postings postings = entry.getValue();
+            float factor = score(entry.getKey(), token, postings, liveDocs);
+            for (int i = 0; i < postings.size; i++) {
+                if (live.get(postings.docs[i])) {
+                    long scoreBits = Float.floatToIntBits(postings.weights[i] * factor) & 0xFFFFFFFFL;
+                    entries[count++] = ((long) postings.docs[i] << 32) | scoreBits;
+                }
+            }
+        }
+        Arrays.sort(entries, 0, count);
+
+        Matches matches = new Matches(count);
+        for (int i = 0; i < count; i++) {
+            if (i + 1 < count && (entries[i + 1] >>> 32) == (entries[i] >>> 32)) {
+                continue;
+            }
+            matches.add((int) (entries[i] >>> 32), Float.intBitsToFloat((int) entries[i]));
+        }
+        return matches;
+    }
+
+    // Rarer words weigh more, and a whole-word hit beats a prefix hit
+    private static float score(String term, String token, Postings postings, int liveDocs) {
+        float idf = (float) Math.log(1 + (double) liveDocs / postings.size);
+        return term.equals(token) ? idf : idf * PREFIX_FACTOR;
+    }
+
+    private void compactIfNeeded() {
+        if (deadDocs < MIN_DEAD_DOCS_TO_COMPACT || deadDocs < docsByProduct.size()) {
+            return;
+        }
+
+        // Renumbering keeps the doc order, so the posting lists stay sorted
+        int[] remap = new int[maxDoc];
+        long[] compacted = new long[Math.max(1024, docsByProduct.size())];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (live.get(doc)) {
+                remap[doc] = next;
+                compacted[next++] = products[doc];
+            } else {
+                remap[doc] = -1;
+            }
+        }
+
+        Iterator<Postings> iterator = terms.values().iterator();
+        while (iterator.hasNext()) {
+            Postings postings = iterator.next();
+            postings.remap(remap);
+            if (postings.size == 0) {
+                iterator.remove();
+            }
+        }
+        docsByProduct.replaceAll((productId, doc) -> remap[doc]);
+
+        live.clear();
+        live.set(0, next);
+        products = compacted;
+        maxDoc = next;
+        deadDocs = 0;
+    }
+
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        private void add(int doc, int weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        private void remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+
+    private static final class Matches {
+
+        private final int[] docs;
+        private final float[] scores;
+        private int size;
+
+        private Matches(int capacity) {
+            this.docs = new int[capacity];
+            this.scores = new float[capacity];
+        }
+
+        private void add(int doc, float score) {
+            docs[size] = doc;
+            scores[size] = score;
+            size++;
+        }
+
+        private Matches intersect(Matches other) {
+            Matches both = new Matches(Math.min(size, other.size));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    both.add(docs[i], scores[i] + other.scores[j]);
+                    i++;
+                    j++;
+                }
+            }
+            return both;
+        }
+
+        // Keeps the best `limit` in a min-heap, only touching it when a match beats the current worst;
+        // equal scores go to the lower product id
+        private List<Long> top(int limit, long[] products) {
+            Comparator<Integer> order = (a, b) -> {
+                int byScore = Float.compare(scores[a], scores[b]);
+                return byScore != 0 ? byScore : Long.compare(products[docs[b]], products[docs[a]]);
+            };
+            PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, order);
+            for (int i = 0; i < size; i++) {
+                if (best.size() < limit) {
+                    best.add(i);
+                } else if (order.compare(i, best.peek()) > 0) {
+                    best.poll();
+                    best.add(i);
+                }
+            }
+
+            Long[] ranked = new Long[best.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = products[docs[best.poll()]];
+            }
+            return List.of(ranked);
+        }
+    }
+}
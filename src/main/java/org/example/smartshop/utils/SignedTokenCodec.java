@@ -0,0 +1,142 @@
+package org.example.smartshop.utils;
+
+import org.example.smartshop.enums.UserRole;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Stateless SessionUser tokens: "keyId.payload.signature", payload and HMAC-SHA256 signature in base64url.
+// Any configured key verifies, only the active one signs, so a key is rotated by adding the new one, making it
+// active, and dropping the old one once the tokens it signed have expired
+public final class SignedTokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final char SEPARATOR = '|';
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // Mac instances are not thread-safe and costly to initialise, so each thread keeps one per key
+    private final Map<String, ThreadLocal<Mac>> macs;
+    private final String activeKeyId;
+    private final Duration ttl;
+
+    // Key ids are case-insensitive and kept lowercase: relaxed binding turns SMARTSHOP_AUTH_TOKEN_KEYS_K2 into k2
+    public SignedTokenCodec(Map<String, byte[]> keys, String activeKeyId, Duration ttl) {
+        Map<String, ThreadLocal<Mac>> macs = new HashMap<>();
+        for (Map.Entry<String, byte[]> key : keys.entrySet()) {
+            String keyId = key.getKey().toLowerCase(Locale.ROOT);
+            if (keyId.isEmpty() || keyId.indexOf('.') >= 0) {
+                throw new IllegalArgumentException("Token key id '" + key.getKey() + "' must be non-empty without '.'");
+            }
+            if (key.getValue().length < MIN_KEY_BYTES) {
+                throw new IllegalArgumentException("Token key '" + key.getKey() + "' must be at least "
+                        + MIN_KEY_BYTES + " bytes");
+            }
+            SecretKeySpec spec = new SecretKeySpec(key.getValue().clone(), ALGORITHM);
+            if (macs.put(keyId, ThreadLocal.withInitial(() -> newMac(spec))) != null) {
+                throw new IllegalArgumentException("Token key id '" + keyId + "' is configured twice");
+            }
+        }
+
+        String activeId = activeKeyId == null ? null : activeKeyId.toLowerCase(Locale.ROOT);
+        if (!macs.containsKey(activeId)) {
+            throw new IllegalArgumentException("Active token key '" + activeKeyId + "' is not configured");
+        }
+
+        this.macs = Map.copyOf(macs);
+        this.activeKeyId = activeId;
+        this.ttl = ttl;
+    }
+
+    public String issue(SessionUser user, Instant now) {
+        String payload = user.getId() + "" + SEPARATOR
+                + user.getRole().name() + SEPARATOR
+                + (user.getClientId() == null ? "" : user.getClientId()) + SEPARATOR
+                + now.plus(ttl).getEpochSecond() + SEPARATOR
+                + user.getUsername();
+
+        String signed = activeKeyId + '.' + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return signed + '.' + ENCODER.encodeToString(sign(activeKeyId, signed));
+    }
+
+    // Null when the token is malformed, signed by an unknown key, tampered with or expired
+    public SessionUser verify(String token, Instant now) {
+        if (token == null) {
+            return null;
+        }
+        int keyEnd = token.indexOf('.');
+        int payloadEnd = token.indexOf('.', keyEnd + 1);
+        if (keyEnd <= 0 || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            return null;
+        }
+
+        String keyId = token.substring(0, keyEnd);
+        if (!macs.containsKey(keyId)) {
+            return null;
+        }
+
+        try {
+            byte[] expected = sign(keyId, token.substring(0, payloadEnd));
+            byte[] actual = DECODER.decode(token.substring(payloadEnd + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+
+            String payload = new String(DECODER.decode(token.substring(keyEnd + 1, payloadEnd)), StandardCharsets.UTF_8);
+            return parse(payload, now);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // id|role|clientId|expiresAt|username; the username goes last so it may contain the separator
+    private static SessionUser parse(String payload, Instant now) {
+        int[] ends = new int[4];
+        int from = 0;
+        for (int i = 0; i < ends.length; i++) {
+            ends[i] = payload.indexOf(SEPARATOR, from);
+            if (ends[i] < 0) {
+                return null;
+            }
+            from = ends[i] + 1;
+        }
+
+        long expiresAt = Long.parseLong(payload, ends[2] + 1, ends[3], 10);
+        if (now.getEpochSecond() >= expiresAt) {
+            return null;
+        }
+
+        String clientId = payload.substring(ends[1] + 1, ends[2]);
+        return SessionUser.builder()
+                .id(Long.parseLong(payload, 0, ends[0], 10))
+                .role(UserRole.valueOf(payload.substring(ends[0] + 1, ends[1])))
+                .clientId(clientId.isEmpty() ? null : Long.valueOf(clientId))
+                .username(payload.substring(ends[3] + 1))
+                .build();
+    }
+
+    private byte[] sign(String keyId, String content) {
+        return macs.get(keyId).get().doFinal(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
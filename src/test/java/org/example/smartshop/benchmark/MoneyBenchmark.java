@@ -0,0 +1,89 @@
+package org.example.smartshop.benchmark;
+
+import org.example.smartshop.utils.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Order totals the way OrderServiceImpl computed them with boxed Doubles and BigDecimal rounding, against Money.
+// main() adds the GC profiler, so gc.alloc.rate.norm gives the bytes allocated per order for each path.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    private static final Double TVA_RATE = 0.20;
+    private static final Double REMISE_RATE = 0.10;
+    private static final long TVA_BASIS_POINTS = Money.basisPoints(TVA_RATE);
+    private static final long REMISE_BASIS_POINTS = Money.basisPoints(REMISE_RATE);
+
+    @Param({"1", "50", "500"})
+    private int lines;
+
+    private Double[] doublePrices;
+    private Money[] moneyPrices;
+    private int[] quantites;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        doublePrices = new Double[lines];
+        moneyPrices = new Money[lines];
+        quantites = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            long cents = 100 + random.nextInt(200_000);
+            doublePrices[i] = cents / 100.0;
+            moneyPrices[i] = Money.ofCents(cents);
+            quantites[i] = 1 + random.nextInt(5);
+        }
+    }
+
+    @Benchmark
+    public Double doubleBigDecimal() {
+        Double sousTotal = 0.0;
+        for (int i = 0; i < lines; i++) {
+            Double totalLigne = round(doublePrices[i] * quantites[i]);
+            sousTotal += totalLigne;
+        }
+
+        Double montantRemise = round(sousTotal * REMISE_RATE);
+        Double montantHt = round(sousTotal - montantRemise);
+        Double tva = round(montantHt * TVA_RATE);
+        return round(montantHt + tva);
+    }
+
+    @Benchmark
+    public Money money() {
+        long sousTotal = 0;
+        for (int i = 0; i < lines; i++) {
+            sousTotal = Math.addExact(sousTotal, moneyPrices[i].times(quantites[i]).cents());
+        }
+
+        long montantHt = sousTotal - Money.applyRate(sousTotal, REMISE_BASIS_POINTS);
+        return Money.ofCents(montantHt + Money.applyRate(montantHt, TVA_BASIS_POINTS));
+    }
+
+    private static Double round(Double value) {
+        return BigDecimal.valueOf(value)
+                .setScale(2, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoneyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
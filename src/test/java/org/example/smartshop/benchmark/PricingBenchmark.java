@@ -0,0 +1,79 @@
+package org.example.smartshop.benchmark;
+
+import org.example.smartshop.entity.PricingRule;
+import org.example.smartshop.entity.PromoCode;
+import org.example.smartshop.enums.CustomerTier;
+import org.example.smartshop.utils.Money;
+import org.example.smartshop.utils.PricingRuleSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Per-order pricing cost; run with: java -cp target/test-classes:<test classpath> org.example.smartshop.benchmark.PricingBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+
+    private static final long TVA_BASIS_POINTS = Money.basisPoints(0.20);
+
+    @Param({"1", "50", "500"})
+    private int lines;
+
+    private PricingRuleSet rules;
+    private Money[] prixUnitaires;
+    private int[] quantites;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        rules = PricingRuleSet.compile(
+                List.of(
+                        PricingRule.builder().tier(CustomerTier.SILVER).minSousTotal(Money.of(500.0)).tauxRemise(0.05).build(),
+                        PricingRule.builder().tier(CustomerTier.GOLD).minSousTotal(Money.of(800.0)).tauxRemise(0.10).build(),
+                        PricingRule.builder().tier(CustomerTier.PLATINUM).minSousTotal(Money.of(1200.0)).tauxRemise(0.15).build()),
+                List.of(
+                        PromoCode.builder().id(1L).code("PROMO-2024").tauxRemise(0.05).maxUsages(1000).build(),
+                        PromoCode.builder().id(2L).code("PROMO-NOEL").tauxRemise(0.05).build()));
+
+        now = LocalDateTime.now();
+        Random random = new Random(42);
+        prixUnitaires = new Money[lines];
+        quantites = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            prixUnitaires[i] = Money.ofCents(100 + random.nextInt(200_000));
+            quantites[i] = 1 + random.nextInt(5);
+        }
+    }
+
+    @Benchmark
+    public long priceOrder() {
+        long sousTotalCents = 0;
+        for (int i = 0; i < lines; i++) {
+            sousTotalCents += Math.multiplyExact(prixUnitaires[i].cents(), quantites[i]);
+        }
+        Money sousTotal = Money.ofCents(sousTotalCents);
+
+        PricingRuleSet.PromoRule promo = rules.promo("PROMO-2024", now);
+        long tauxPromo = promo == null ? PricingRuleSet.NO_PROMO : promo.tauxRemise();
+        long remise = Money.applyRate(sousTotalCents, rules.discountRate(CustomerTier.GOLD, sousTotal, tauxPromo));
+        long montantHt = sousTotalCents - remise;
+        return montantHt + Money.applyRate(montantHt, TVA_BASIS_POINTS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PricingBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
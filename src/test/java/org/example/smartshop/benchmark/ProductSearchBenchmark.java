@@ -0,0 +1,74 @@
+package org.example.smartshop.benchmark;
+
+import org.example.smartshop.utils.ProductSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Query latency over a synthetic French catalog; the index is built once per trial, outside the measurement
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    private static final String[] NOMS = {
+            "Écran", "Ordinateur", "Souris", "Clavier", "Casque", "Enceinte", "Imprimante", "Câble",
+            "Chargeur", "Tablette", "Téléphone", "Montre", "Caméra", "Disque", "Mémoire", "Routeur"};
+    private static final String[] QUALIFICATIFS = {
+            "portable", "sans fil", "gamer", "professionnel", "compact", "lumineux", "ergonomique", "étanche",
+            "rapide", "silencieux", "reconditionné", "haute résolution", "USB-C", "Bluetooth", "noir", "blanc"};
+    private static final String[] DESCRIPTIONS = {
+            "Idéal pour le bureau et la maison", "Livré avec son étui de protection", "Garantie deux ans",
+            "Compatible avec tous les systèmes", "Qualité supérieure à prix réduit", "Édition limitée"};
+
+    @Param({"100000", "1000000"})
+    private int products;
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new ProductSearchIndex();
+        for (long id = 1; id <= products; id++) {
+            String nom = NOMS[random.nextInt(NOMS.length)] + " "
+                    + QUALIFICATIFS[random.nextInt(QUALIFICATIFS.length)] + " " + random.nextInt(1000);
+            index.index(id, nom, DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)]);
+        }
+    }
+
+    @Benchmark
+    public List<Long> word() {
+        return index.search("imprimante", 20);
+    }
+
+    @Benchmark
+    public List<Long> prefix() {
+        return index.search("ordi", 20);
+    }
+
+    @Benchmark
+    public List<Long> twoWordsWithAccents() {
+        return index.search("ecran etanche", 20);
+    }
+
+    @Benchmark
+    public List<Long> selective() {
+        return index.search("clavier gamer 42", 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
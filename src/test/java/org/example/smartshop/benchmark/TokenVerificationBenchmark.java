@@ -0,0 +1,78 @@
+package org.example.smartshop.benchmark;
+
+import org.example.smartshop.enums.UserRole;
+import org.example.smartshop.utils.SessionUser;
+import org.example.smartshop.utils.SignedTokenCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of the stateless auth mode: verifying a bearer token, signed by the active key or by the
+// previous one during a rotation, and issuing one at login. Run with 4 threads (-t 4) to include ThreadLocal Macs
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenVerificationBenchmark {
+
+    private SignedTokenCodec codec;
+    private SessionUser user;
+    private String activeKeyToken;
+    private String previousKeyToken;
+    private String tamperedToken;
+    private Instant now;
+
+    @Setup
+    public void setUp() {
+        SecureRandom random = new SecureRandom();
+        byte[] previousKey = new byte[32];
+        byte[] activeKey = new byte[32];
+        random.nextBytes(previousKey);
+        random.nextBytes(activeKey);
+
+        now = Instant.now();
+        user = SessionUser.builder().id(42L).username("client42").role(UserRole.CLIENT).clientId(1042L).build();
+        codec = new SignedTokenCodec(Map.of("k1", previousKey, "k2", activeKey), "k2", Duration.ofHours(8));
+        previousKeyToken = new SignedTokenCodec(Map.of("k1", previousKey), "k1", Duration.ofHours(8)).issue(user, now);
+        activeKeyToken = codec.issue(user, now);
+        tamperedToken = activeKeyToken.substring(0, activeKeyToken.length() - 2) + "AA";
+    }
+
+    @Benchmark
+    public SessionUser verify() {
+        return codec.verify(activeKeyToken, now);
+    }
+
+    @Benchmark
+    public SessionUser verifyPreviousKey() {
+        return codec.verify(previousKeyToken, now);
+    }
+
+    @Benchmark
+    public SessionUser rejectTampered() {
+        return codec.verify(tamperedToken, now);
+    }
+
+    @Benchmark
+    public String issue() {
+        return codec.issue(user, now);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenVerificationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
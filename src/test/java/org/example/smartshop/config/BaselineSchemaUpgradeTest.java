@@ -0,0 +1,104 @@
+package org.example.smartshop.config;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.h2.Driver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the changelog over a schema Hibernate created before Liquibase took over, rows included
+class BaselineSchemaUpgradeTest {
+
+    private SimpleDriverDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SimpleDriverDataSource(new Driver(),
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        new ResourceDatabasePopulator(new ClassPathResource("db/hibernate-baseline-schema.sql")).execute(dataSource);
+    }
+
+    @Test
+    void upgrade_AddsColumnsAndSequencesTheSeriesIntroduced() throws Exception {
+        migrate();
+
+        for (String table : List.of("clients", "products", "orders")) {
+            assertEquals(0L, jdbcTemplate.queryForObject("SELECT MAX(version) FROM " + table, Long.class), table);
+        }
+        assertEquals(List.of("ORDERS_SEQ", "ORDER_ITEMS_SEQ", "PAYMENTS_SEQ", "STOCK_RESERVATIONS_SEQ"),
+                jdbcTemplate.queryForList("SELECT UPPER(sequence_name) FROM information_schema.sequences " +
+                        "WHERE UPPER(sequence_name) LIKE '%\\_SEQ' ESCAPE '\\' ORDER BY 1", String.class));
+    }
+
+    @Test
+    void upgrade_BackfillsPaidTotalsAndPaymentCounters() throws Exception {
+        migrate();
+
+        List<Map<String, Object>> orders = jdbcTemplate.queryForList(
+                "SELECT montant_encaisse, dernier_numero_paiement FROM orders ORDER BY id");
+
+        // Only the cashed payments count towards the total, every payment towards the counter
+        assertEquals(0, new BigDecimal("500.00").compareTo((BigDecimal) orders.get(0).get("MONTANT_ENCAISSE")));
+        assertEquals(3, orders.get(0).get("DERNIER_NUMERO_PAIEMENT"));
+        assertEquals(0, BigDecimal.ZERO.compareTo((BigDecimal) orders.get(1).get("MONTANT_ENCAISSE")));
+        assertEquals(2, orders.get(1).get("DERNIER_NUMERO_PAIEMENT"));
+    }
+
+    @Test
+    void upgrade_RenumbersDuplicatePaymentNumbersBeforeAddingTheConstraint() throws Exception {
+        migrate();
+
+        assertEquals(List.of(1, 2, 3), jdbcTemplate.queryForList(
+                "SELECT numero_paiement FROM payments WHERE order_id = 1 ORDER BY id", Integer.class));
+        assertEquals(List.of(1, 2), jdbcTemplate.queryForList(
+                "SELECT numero_paiement FROM payments WHERE order_id = 2 ORDER BY id", Integer.class));
+    }
+
+    @Test
+    void upgrade_CreatesEveryIndexTheVerifierRequires() throws Exception {
+        migrate();
+
+        assertEquals(List.of(), new SchemaIndexVerifier(dataSource, true).missing(SchemaIndexVerifier.REQUIRED));
+    }
+
+    @Test
+    void upgrade_CreatesTablesTheBaselineLacked() throws Exception {
+        migrate();
+
+        for (String table : List.of("stock_reservations", "idempotency_keys", "client_stats_outbox",
+                "pricing_rules", "promo_codes", "promo_redemptions")) {
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class), table);
+        }
+    }
+
+    @Test
+    void upgrade_SecondRun_ChangesNothing() throws Exception {
+        migrate();
+        int applied = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM databasechangelog", Integer.class);
+
+        migrate();
+
+        assertEquals(applied, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM databasechangelog", Integer.class));
+    }
+
+    private void migrate() throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.smartshop.config;
+
+import org.example.smartshop.mapper.OrderMapperImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({SchemaIndexVerifier.class, OrderMapperImpl.class})
+class SchemaIndexVerifierTest {
+
+    @Autowired
+    private SchemaIndexVerifier verifier;
+
+    @Test
+    void changelogCreatesEveryRequiredIndex() {
+        assertEquals(List.of(), verifier.missing(SchemaIndexVerifier.REQUIRED));
+    }
+
+    @Test
+    void reportsIndexesWhoseLeadingColumnsDoNotMatch() {
+        SchemaIndexVerifier.IndexRequirement reversed =
+                new SchemaIndexVerifier.IndexRequirement("orders", "date_creation", "client_id");
+        SchemaIndexVerifier.IndexRequirement prefix =
+                new SchemaIndexVerifier.IndexRequirement("orders", "client_id");
+
+        assertEquals(List.of(reversed), verifier.missing(List.of(reversed, prefix)));
+    }
+}
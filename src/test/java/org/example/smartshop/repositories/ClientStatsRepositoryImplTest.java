@@ -0,0 +1,44 @@
+package org.example.smartshop.repositories;
+
+import org.example.smartshop.config.LoyaltyProperties;
+import org.example.smartshop.enums.CustomerTier;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ClientStatsRepositoryImplTest {
+
+    private final Map<CustomerTier, LoyaltyProperties.Threshold> thresholds = new LoyaltyProperties().thresholds();
+
+    // The drain is a data-modifying CTE that only Postgres runs, so it is checked against the JdbcTemplate
+    @Test
+    void applyStatsOutbox_SumsOrdersReturnedPerClient() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE SKIP LOCKED"), eq(Integer.class), eq(500)))
+                .thenReturn(List.of(3, 1, 2));
+
+        int applied = new ClientStatsRepositoryImpl(jdbcTemplate).applyStatsOutbox(500, thresholds);
+
+        assertEquals(6, applied);
+    }
+
+    @Test
+    void applyStatsOutbox_TiersOnTheUpdatedTotalsHighestFirst() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+        new ClientStatsRepositoryImpl(jdbcTemplate).applyStatsOutbox(500, thresholds);
+
+        verify(jdbcTemplate).queryForList(contains("tier = CASE" +
+                " WHEN c.total_orders + d.orders >= 20 OR c.total_spent + d.spent >= 15000.0 THEN 'PLATINUM'" +
+                " WHEN c.total_orders + d.orders >= 10 OR c.total_spent + d.spent >= 5000.0 THEN 'GOLD'" +
+                " WHEN c.total_orders + d.orders >= 3 OR c.total_spent + d.spent >= 1000.0 THEN 'SILVER'" +
+                " ELSE 'BASIC' END"), eq(Integer.class), eq(500));
+    }
+}
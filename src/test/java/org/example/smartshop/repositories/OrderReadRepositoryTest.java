@@ -0,0 +1,173 @@
+package org.example.smartshop.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.example.smartshop.dtos.response.OrderResponse;
+import org.example.smartshop.entity.*;
+import org.example.smartshop.enums.OrderStatus;
+import org.example.smartshop.enums.UserRole;
+import org.example.smartshop.mapper.OrderMapperImpl;
+import org.example.smartshop.utils.Money;
+import org.example.smartshop.utils.OrderCursor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(OrderMapperImpl.class)
+class OrderReadRepositoryTest {
+
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("dateCreation"), Sort.Order.desc("id"));
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        List<Client> clients = List.of(persistClient("alice"), persistClient("bob"), persistClient("carol"));
+        List<Product> products = List.of(persistProduct("Clavier", 50.0), persistProduct("Souris", 20.0),
+                persistProduct("Ecran", 200.0));
+        client = clients.get(0);
+
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int i = 0; i < 12; i++) {
+            persistOrder(clients.get(i % clients.size()), products, start.plusHours(i));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findOrderResponses_Page_UsesTwoStatementsRegardlessOfSize() {
+        List<OrderResponse> page = orderRepository.findOrderResponses(Specification.unrestricted(), KEYSET_SORT, 10);
+
+        assertEquals(10, page.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(page.stream().allMatch(order -> order.getItems().size() == 3));
+        assertTrue(page.get(0).getDateCreation().isAfter(page.get(1).getDateCreation()));
+    }
+
+    @Test
+    void findOrderResponses_ClientHistory_UsesTwoStatements() {
+        List<OrderResponse> history = orderRepository.findOrderResponses(
+                OrderSpecifications.hasClient(client.getId()), KEYSET_SORT, null);
+
+        assertEquals(4, history.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertTrue(history.stream().allMatch(order -> order.getClientNom().equals("alice")));
+        assertEquals("Clavier", history.get(0).getItems().get(0).getProductNom());
+    }
+
+    @Test
+    void findOrderResponses_NoMatch_SkipsItemQuery() {
+        List<OrderResponse> orders = orderRepository.findOrderResponses(
+                OrderSpecifications.hasStatus(OrderStatus.CONFIRMED), KEYSET_SORT, 10);
+
+        assertTrue(orders.isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findOrderResponses_KeysetPagesPastEqualDates_VisitsEveryOrderOnce() {
+        LocalDateTime tie = LocalDateTime.of(2025, 1, 1, 15, 30);
+        List<Product> products = List.of(persistProduct("Casque", 80.0));
+        for (int i = 0; i < 5; i++) {
+            persistOrder(client, products, tie);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        Specification<Order> specification = Specification.unrestricted();
+        while (true) {
+            List<OrderResponse> page = orderRepository.findOrderResponses(specification, KEYSET_SORT, 2);
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(order -> seen.add(order.getId()));
+
+            OrderCursor cursor = OrderCursor.decode(OrderCursor.of(page.get(page.size() - 1)).encode());
+            specification = OrderSpecifications.after(cursor.dateCreation(), cursor.id());
+        }
+
+        List<Long> expected = orderRepository.findOrderResponses(Specification.unrestricted(), KEYSET_SORT, null)
+                .stream().map(OrderResponse::getId).toList();
+        assertEquals(17, seen.size());
+        assertEquals(expected, seen);
+    }
+
+    private Client persistClient(String name) {
+        User user = User.builder()
+                .username(name)
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .build();
+        entityManager.persist(user);
+
+        Client newClient = Client.builder()
+                .nom(name)
+                .email(name + "@example.com")
+                .telephone("0600000000")
+                .user(user)
+                .build();
+        entityManager.persist(newClient);
+        return newClient;
+    }
+
+    private Product persistProduct(String name, Double price) {
+        Product product = Product.builder()
+                .nom(name)
+                .prixUnitaire(Money.of(price))
+                .stock(100)
+                .build();
+        entityManager.persist(product);
+        return product;
+    }
+
+    private void persistOrder(Client owner, List<Product> products, LocalDateTime dateCreation) {
+        Order order = Order.builder()
+                .client(owner)
+                .dateCreation(dateCreation)
+                .sousTotal(Money.of(270.0))
+                .montantHtApresRemise(Money.of(270.0))
+                .tva(Money.of(54.0))
+                .totalTtc(Money.of(324.0))
+                .montantRestant(Money.of(324.0))
+                .build();
+
+        for (Product product : products) {
+            order.getOrderItems().add(OrderItem.builder()
+                    .order(order)
+                    .product(product)
+                    .quantite(1)
+                    .prixUnitaire(product.getPrixUnitaire())
+                    .totalLigne(product.getPrixUnitaire())
+                    .build());
+        }
+        entityManager.persist(order);
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.smartshop.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticRetryAspectTest {
+
+    private static final String METHOD = "ConflictingService.update()";
+
+    private AnnotationConfigApplicationContext context;
+    private SimpleMeterRegistry meterRegistry;
+    private List<Long> pauses;
+    private ConflictingService target;
+    private ConflictingService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        context = new AnnotationConfigApplicationContext(RetryConfig.class);
+        meterRegistry = context.getBean(SimpleMeterRegistry.class);
+        pauses = context.getBean(RecordingRetryTemplate.class).pauses;
+        service = context.getBean(ConflictingService.class);
+        target = (ConflictingService) ((Advised) service).getTargetSource().getTarget();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void retry_ConflictThenSuccess_RetriesAndReturns() {
+        target.conflicts = 2;
+
+        assertEquals("saved", service.update());
+        assertEquals(3, target.calls);
+        assertEquals(2, pauses.size());
+        assertEquals(1, count("smartshop.optimistic.calls"));
+        assertEquals(2, count("smartshop.optimistic.conflicts"));
+        assertEquals(2, count("smartshop.optimistic.retries"));
+        assertEquals(0, count("smartshop.optimistic.exhausted"));
+    }
+
+    @Test
+    void retry_BackoffStaysUnderExponentialCeiling() {
+        target.conflicts = 3;
+
+        assertThrows(OptimisticLockingFailureException.class, service::update);
+        assertEquals(2, pauses.size());
+        assertTrue(pauses.get(0) >= 0 && pauses.get(0) <= 20);
+        assertTrue(pauses.get(1) >= 0 && pauses.get(1) <= 40);
+    }
+
+    @Test
+    void backoff_CappedAtOneSecond() {
+        OptimisticRetryTemplate template = new OptimisticRetryTemplate(meterRegistry);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(template.backoff(20, 30) <= 1000);
+        }
+    }
+
+    @Test
+    void retry_StillConflictingAfterMaxAttempts_RethrowsAndCountsExhaustion() {
+        target.conflicts = Integer.MAX_VALUE;
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, service::update);
+        assertEquals(3, target.calls);
+        assertEquals(3, count("smartshop.optimistic.conflicts"));
+        assertEquals(2, count("smartshop.optimistic.retries"));
+        assertEquals(1, count("smartshop.optimistic.exhausted"));
+    }
+
+    @Test
+    void retry_OtherFailure_NotRetried() {
+        target.failure = new IllegalStateException("boom");
+
+        assertThrows(IllegalStateException.class, service::update);
+        assertEquals(1, target.calls);
+        assertEquals(0, count("smartshop.optimistic.conflicts"));
+    }
+
+    @Test
+    void retry_InsideCallerTransaction_LeavesConflictToOutermostCall() {
+        target.conflicts = 1;
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(ObjectOptimisticLockingFailureException.class, service::update);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(1, target.calls);
+        assertTrue(pauses.isEmpty());
+        assertEquals(0, count("smartshop.optimistic.calls"));
+    }
+
+    private double count(String name) {
+        return meterRegistry.counter(name, "method", METHOD).count();
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    static class RetryConfig {
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        RecordingRetryTemplate retryTemplate(SimpleMeterRegistry meterRegistry) {
+            return new RecordingRetryTemplate(meterRegistry);
+        }
+
+        @Bean
+        OptimisticRetryAspect optimisticRetryAspect(OptimisticRetryTemplate retryTemplate) {
+            return new OptimisticRetryAspect(retryTemplate);
+        }
+
+        @Bean
+        ConflictingService conflictingService() {
+            return new ConflictingService();
+        }
+    }
+
+    // Records the backoff instead of sleeping
+    static class RecordingRetryTemplate extends OptimisticRetryTemplate {
+
+        final List<Long> pauses = new ArrayList<>();
+
+        RecordingRetryTemplate(SimpleMeterRegistry meterRegistry) {
+            super(meterRegistry);
+        }
+
+        @Override
+        void pause(long millis, OptimisticLockingFailureException conflict) {
+            pauses.add(millis);
+        }
+    }
+
+    static class ConflictingService {
+
+        int conflicts;
+        int calls;
+        RuntimeException failure;
+
+        @OptimisticRetry
+        public String update() {
+            calls++;
+            if (failure != null) {
+                throw failure;
+            }
+            if (calls <= conflicts) {
+                throw new ObjectOptimisticLockingFailureException("Order", 1L);
+            }
+            return "saved";
+        }
+    }
+}
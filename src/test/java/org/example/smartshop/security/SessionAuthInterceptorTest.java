@@ -0,0 +1,92 @@
+package org.example.smartshop.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.smartshop.enums.UserRole;
+import org.example.smartshop.exception.UnauthorizedException;
+import org.example.smartshop.services.AuthService;
+import org.example.smartshop.utils.SessionUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionAuthInterceptorTest {
+
+    private final AuthService authService = mock(AuthService.class);
+    private final SessionAuthInterceptor interceptor = new SessionAuthInterceptor(authService);
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+
+    @Test
+    void preHandle_PublicEndpoint_NeverLooksUpTheSession() throws Exception {
+        assertTrue(interceptor.preHandle(request, response, handler(AdminController.class, "health")));
+
+        verifyNoInteractions(request, response, authService);
+    }
+
+    @Test
+    void preHandle_NoCurrentUser_Unauthorized() throws Exception {
+        when(authService.getCurrentUser(request)).thenReturn(null);
+
+        assertThrows(UnauthorizedException.class,
+                () -> interceptor.preHandle(request, response, handler(OpenController.class, "read")));
+        verify(request, never()).setAttribute(anyString(), any());
+    }
+
+    @Test
+    void preHandle_ClientOnAdminController_Forbidden() throws Exception {
+        loggedIn(UserRole.CLIENT);
+
+        assertFalse(interceptor.preHandle(request, response, handler(AdminController.class, "list")));
+        verify(response).setStatus(403);
+    }
+
+    @Test
+    void preHandle_MethodRoleOverridesController_AllowedAndExposesUser() throws Exception {
+        SessionUser user = loggedIn(UserRole.CLIENT);
+
+        assertTrue(interceptor.preHandle(request, response, handler(AdminController.class, "ownOrders")));
+        verify(request).setAttribute(SessionAuthInterceptor.CURRENT_USER_ATTRIBUTE, user);
+    }
+
+    @Test
+    void preHandle_AnyRoleWithoutAnnotation_Allowed() throws Exception {
+        loggedIn(UserRole.CLIENT);
+
+        assertTrue(interceptor.preHandle(request, response, handler(OpenController.class, "read")));
+        verify(response, never()).setStatus(403);
+    }
+
+    private SessionUser loggedIn(UserRole role) {
+        SessionUser user = SessionUser.builder().id(1L).username("user").role(role).clientId(7L).build();
+        when(authService.getCurrentUser(request)).thenReturn(user);
+        return user;
+    }
+
+    private static HandlerMethod handler(Class<?> controller, String method) throws Exception {
+        return new HandlerMethod(controller.getDeclaredConstructor().newInstance(), controller.getMethod(method));
+    }
+
+    @RequireRole(UserRole.ADMIN)
+    public static class AdminController {
+
+        public void list() {
+        }
+
+        @RequireRole({UserRole.ADMIN, UserRole.CLIENT})
+        public void ownOrders() {
+        }
+
+        @PublicEndpoint
+        public void health() {
+        }
+    }
+
+    public static class OpenController {
+
+        public void read() {
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.smartshop.services;
+
+import org.example.smartshop.config.LoyaltyProperties;
+import org.example.smartshop.events.ClientStatsRecordedEvent;
+import org.example.smartshop.repositories.ClientRepository;
+import org.example.smartshop.services.impl.ClientStatsAggregator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ClientStatsAggregatorTest {
+
+    private final ClientRepository clientRepository = mock(ClientRepository.class);
+    private final ClientStatsAggregator aggregator = new ClientStatsAggregator(clientRepository,
+            new LoyaltyProperties(), mock(PlatformTransactionManager.class), 2);
+
+    @AfterEach
+    void tearDown() {
+        aggregator.shutdown();
+    }
+
+    @Test
+    void flush_FullBatches_DrainsUntilAShortOne() {
+        when(clientRepository.applyStatsOutbox(eq(2), anyMap())).thenReturn(2, 2, 1);
+
+        aggregator.flush();
+
+        verify(clientRepository, times(3)).applyStatsOutbox(eq(2), anyMap());
+    }
+
+    @Test
+    void flush_Failure_LeavesRowsForTheNextFlush() {
+        when(clientRepository.applyStatsOutbox(eq(2), anyMap()))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenReturn(1);
+
+        assertDoesNotThrow(aggregator::flush);
+        aggregator.flush();
+
+        verify(clientRepository, times(2)).applyStatsOutbox(eq(2), anyMap());
+    }
+
+    @Test
+    void onClientStatsRecorded_BatchWorthRecorded_FlushesEarly() {
+        aggregator.onClientStatsRecorded(new ClientStatsRecordedEvent(1L));
+        verifyNoInteractions(clientRepository);
+
+        aggregator.onClientStatsRecorded(new ClientStatsRecordedEvent(2L));
+        verify(clientRepository, timeout(1000)).applyStatsOutbox(eq(2), anyMap());
+    }
+
+    @Test
+    void flush_AlreadyRunning_SkipsInsteadOfWaiting() throws Exception {
+        CountDownLatch draining = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(clientRepository.applyStatsOutbox(eq(2), anyMap())).thenAnswer(invocation -> {
+            draining.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 0;
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> running = executor.submit(aggregator::flush);
+            assertTrue(draining.await(5, TimeUnit.SECONDS));
+
+            aggregator.flush();
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(clientRepository, times(1)).applyStatsOutbox(eq(2), anyMap());
+    }
+}
@@ -0,0 +1,191 @@
+package org.example.smartshop.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.smartshop.entity.IdempotencyRecord;
+import org.example.smartshop.exception.BadRequestException;
+import org.example.smartshop.exception.BusinessException;
+import org.example.smartshop.repositories.IdempotencyRecordRepository;
+import org.example.smartshop.retry.OptimisticRetryTemplate;
+import org.example.smartshop.services.impl.IdempotencyServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceImplTest {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IdempotencyServiceImpl idempotencyService = new IdempotencyServiceImpl(idempotencyRecordRepository,
+            objectMapper, mock(PlatformTransactionManager.class), new OptimisticRetryTemplate(new SimpleMeterRegistry()),
+            Duration.ofHours(24), 100);
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private Receipt pay() {
+        return new Receipt((long) runs.incrementAndGet(), "PAY-1");
+    }
+
+    @Test
+    void execute_SameKeyAndRequest_ReplaysFirstResponse() {
+        Receipt first = idempotencyService.execute("payments", 1L, "key-1", Map.of("montant", 100), Receipt.class,
+                this::pay);
+        Receipt second = idempotencyService.execute("payments", 1L, "key-1", Map.of("montant", 100), Receipt.class,
+                this::pay);
+
+        assertEquals(1, runs.get());
+        assertEquals(first, second);
+    }
+
+    @Test
+    void execute_SameKeyDifferentRequest_Rejected() {
+        idempotencyService.execute("payments", 1L, "key-1", Map.of("montant", 100), Receipt.class, this::pay);
+
+        assertThrows(BusinessException.class, () -> idempotencyService.execute("payments", 1L, "key-1",
+                Map.of("montant", 200), Receipt.class, this::pay));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_SameKeyDifferentPrincipal_RunsForEach() {
+        Receipt first = idempotencyService.execute("payments", 1L, "key-1", Map.of("montant", 100), Receipt.class,
+                this::pay);
+        Receipt second = idempotencyService.execute("payments", 2L, "key-1", Map.of("montant", 100), Receipt.class,
+                this::pay);
+
+        assertEquals(2, runs.get());
+        assertNotEquals(first, second);
+        verify(idempotencyRecordRepository).findByScopeAndIdempotencyKeyAndCreatedAtAfter(eq("payments:1"),
+                eq("key-1"), any());
+        verify(idempotencyRecordRepository).findByScopeAndIdempotencyKeyAndCreatedAtAfter(eq("payments:2"),
+                eq("key-1"), any());
+    }
+
+    @Test
+    void execute_KeyLongerThanColumn_BadRequest() {
+        String key = "k".repeat(256);
+
+        assertThrows(BadRequestException.class, () -> idempotencyService.execute("payments", 1L, key,
+                Map.of("montant", 100), Receipt.class, this::pay));
+        assertEquals(0, runs.get());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void execute_RecordCommittedByAnotherNode_Replayed() throws Exception {
+        when(idempotencyRecordRepository.findByScopeAndIdempotencyKeyAndCreatedAtAfter(eq("payments:1"),
+                eq("key-1"), any())).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .requestHash(hashOf(Map.of("montant", 100)))
+                .responseBody("{\"id\":42,\"reference\":\"PAY-42\"}")
+                .build()));
+
+        Receipt receipt = idempotencyService.execute("payments", 1L, "key-1", Map.of("montant", 100), Receipt.class,
+                this::pay);
+
+        assertEquals(new Receipt(42L, "PAY-42"), receipt);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void execute_ExpiredRecordNotYetPurged_Replaced() throws Exception {
+        when(idempotencyRecordRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotency_keys_scope_key"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(idempotencyRecordRepository.findByScopeAndIdempotencyKey("payments:1", "key-1"))
+                .thenReturn(Optional.of(IdempotencyRecord.builder()
+                        .requestHash(hashOf(Map.of("montant", 200)))
+                        .responseBody("{\"id\":42,\"reference\":\"PAY-42\"}")
+                        .createdAt(LocalDateTime.now().minusDays(2))
+                        .build()));
+
+        Receipt receipt = idempotencyService.execute("payments", 1L, "key-1", Map.of("montant", 100), Receipt.class,
+                this::pay);
+
+        assertEquals(new Receipt(2L, "PAY-1"), receipt);
+        assertEquals(2, runs.get());
+        verify(idempotencyRecordRepository).deleteExpired(eq("payments:1"), eq("key-1"), any());
+    }
+
+    @Test
+    void execute_OptimisticConflict_RetriesWholeTransaction() {
+        Receipt receipt = idempotencyService.execute("payments", 1L, "key-1", Map.of("montant", 100), Receipt.class,
+                () -> {
+                    if (runs.incrementAndGet() == 1) {
+                        throw new ObjectOptimisticLockingFailureException("Order", 1L);
+                    }
+                    return new Receipt(2L, "PAY-2");
+                });
+
+        assertEquals(new Receipt(2L, "PAY-2"), receipt);
+        assertEquals(2, runs.get());
+        verify(idempotencyRecordRepository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void execute_ConcurrentDuplicates_RunActionOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<Receipt>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> idempotencyService.execute("payments", 1L, "key-1",
+                        Map.of("montant", 100), Receipt.class, () -> {
+                            started.countDown();
+                            await(release);
+                            return pay();
+                        })));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            release.countDown();
+
+            Receipt first = futures.get(0).get();
+            for (Future<Receipt> future : futures) {
+                assertEquals(first, future.get());
+            }
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String hashOf(Object request) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record Receipt(Long id, String reference) {
+    }
+}
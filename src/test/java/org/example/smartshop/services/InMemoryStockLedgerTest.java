@@ -0,0 +1,127 @@
+package org.example.smartshop.services;
+
+import org.example.smartshop.events.ProductChangedEvent;
+import org.example.smartshop.repositories.ProductRepository;
+import org.example.smartshop.services.impl.InMemoryStockLedger;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class InMemoryStockLedgerTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final InMemoryStockLedger ledger = new InMemoryStockLedger(productRepository,
+            mock(PlatformTransactionManager.class));
+
+    @Test
+    void reserve_OneLineShort_GivesBackTheOtherLines() {
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(5));
+        when(productRepository.findStockById(2L)).thenReturn(Optional.of(1));
+
+        assertEquals(List.of(2L), ledger.reserve(Map.of(1L, 3, 2L, 2)));
+        assertTrue(ledger.reserve(Map.of(1L, 5)).isEmpty());
+        assertEquals(List.of(1L), ledger.reserve(Map.of(1L, 1)));
+    }
+
+    @Test
+    void reserve_UnknownProduct_Fails() {
+        when(productRepository.findStockById(1L)).thenReturn(Optional.empty());
+
+        assertEquals(List.of(1L), ledger.reserve(Map.of(1L, 1)));
+    }
+
+    @Test
+    void release_ReturnsStockAndCancelsPendingDelta() {
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(5));
+
+        ledger.reserve(Map.of(1L, 5));
+        ledger.release(Map.of(1L, 5));
+        ledger.flush();
+
+        assertTrue(ledger.reserve(Map.of(1L, 5)).isEmpty());
+        verify(productRepository, never()).subtractStocks(anyMap());
+    }
+
+    @Test
+    void reserve_ParallelClients_NeverOversells() throws Exception {
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(100));
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return ledger.reserve(Map.of(1L, 1)).isEmpty();
+                }));
+            }
+            start.countDown();
+
+            int granted = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get()) {
+                    granted++;
+                }
+            }
+            assertEquals(100, granted);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ledger.flush();
+        verify(productRepository).subtractStocks(Map.of(1L, 100));
+    }
+
+    @Test
+    void onProductChanged_ShiftsCounterByTheEditOnly() {
+        when(productRepository.findStockById(1L))
+                .thenReturn(Optional.of(10))
+                .thenReturn(Optional.of(15));
+
+        ledger.reserve(Map.of(1L, 4));
+        ledger.flush();
+        // products.stock is now 6, an admin sets it to 15 while nothing is pending
+        ledger.onProductChanged(new ProductChangedEvent(1L));
+
+        assertTrue(ledger.reserve(Map.of(1L, 15)).isEmpty());
+        assertEquals(List.of(1L), ledger.reserve(Map.of(1L, 1)));
+    }
+
+    @Test
+    void onProductChanged_WithUnflushedReservations_DoesNotResurrectStock() {
+        when(productRepository.findStockById(1L))
+                .thenReturn(Optional.of(10))
+                .thenReturn(Optional.of(20));
+
+        ledger.reserve(Map.of(1L, 4));
+        ledger.onProductChanged(new ProductChangedEvent(1L));
+
+        assertTrue(ledger.reserve(Map.of(1L, 16)).isEmpty());
+        assertEquals(List.of(1L), ledger.reserve(Map.of(1L, 1)));
+    }
+
+    @Test
+    void onProductChanged_DeletedProduct_DropsCounter() {
+        when(productRepository.findStockById(1L))
+                .thenReturn(Optional.of(10))
+                .thenReturn(Optional.empty());
+
+        ledger.reserve(Map.of(1L, 1));
+        ledger.onProductChanged(new ProductChangedEvent(1L));
+
+        assertEquals(List.of(1L), ledger.reserve(Map.of(1L, 1)));
+    }
+}
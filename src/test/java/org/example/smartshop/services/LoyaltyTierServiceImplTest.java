@@ -0,0 +1,114 @@
+package org.example.smartshop.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.smartshop.config.LoyaltyProperties;
+import org.example.smartshop.dtos.response.TierRecalculationResponse;
+import org.example.smartshop.entity.Client;
+import org.example.smartshop.enums.CustomerTier;
+import org.example.smartshop.mapper.OrderMapperImpl;
+import org.example.smartshop.services.impl.LoyaltyTierServiceImpl;
+import org.example.smartshop.utils.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A chunk size of 2 makes the five clients span three chunks
+@DataJpaTest(properties = "smartshop.loyalty.recalculation-chunk-size=2")
+@ActiveProfiles("test")
+@EnableConfigurationProperties(LoyaltyProperties.class)
+@Import({LoyaltyTierServiceImpl.class, OrderMapperImpl.class})
+class LoyaltyTierServiceImplTest {
+
+    @Autowired
+    private LoyaltyTierService loyaltyTierService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private List<Client> clients;
+
+    @BeforeEach
+    void setUp() {
+        clients = List.of(
+                persistClient("basic", CustomerTier.BASIC, 0, 0.0),
+                persistClient("silver", CustomerTier.BASIC, 3, 0.0),
+                persistClient("gold", CustomerTier.SILVER, 0, 5000.0),
+                persistClient("platinum", CustomerTier.GOLD, 25, 200.0),
+                persistClient("demoted", CustomerTier.GOLD, 1, 10.0));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void recalculateTiers_DryRun_CountsMovementsWithoutWriting() {
+        TierRecalculationResponse response = loyaltyTierService.recalculateTiers(true);
+
+        assertTrue(response.getDryRun());
+        assertEquals(5L, response.getScanned());
+        assertEquals(4L, response.getMoved());
+        assertEquals(List.of(CustomerTier.BASIC, CustomerTier.BASIC, CustomerTier.SILVER, CustomerTier.GOLD,
+                CustomerTier.GOLD), tiers());
+        assertTrue(versions().stream().allMatch(version -> version == 0L));
+    }
+
+    @Test
+    void recalculateTiers_AcrossChunkBoundaries_ReTiersEveryClient() {
+        TierRecalculationResponse response = loyaltyTierService.recalculateTiers(false);
+
+        assertFalse(response.getDryRun());
+        assertEquals(5L, response.getScanned());
+        assertEquals(4L, response.getMoved());
+        assertEquals(Map.of("BASIC->SILVER", 1L, "SILVER->GOLD", 1L, "GOLD->PLATINUM", 1L, "GOLD->BASIC", 1L),
+                response.getMovements().stream().collect(Collectors.toMap(
+                        movement -> movement.getFrom() + "->" + movement.getTo(),
+                        TierRecalculationResponse.TierMovement::getCount)));
+        assertEquals(List.of(CustomerTier.BASIC, CustomerTier.SILVER, CustomerTier.GOLD, CustomerTier.PLATINUM,
+                CustomerTier.BASIC), tiers());
+        // Only the clients whose tier changed are written
+        assertEquals(List.of(0L, 1L, 1L, 1L, 1L), versions());
+    }
+
+    @Test
+    void recalculateTiers_SecondRun_MovesNobody() {
+        loyaltyTierService.recalculateTiers(false);
+
+        TierRecalculationResponse response = loyaltyTierService.recalculateTiers(false);
+
+        assertEquals(5L, response.getScanned());
+        assertEquals(0L, response.getMoved());
+        assertTrue(response.getMovements().isEmpty());
+    }
+
+    private List<CustomerTier> tiers() {
+        entityManager.clear();
+        return clients.stream().map(client -> entityManager.find(Client.class, client.getId()).getTier()).toList();
+    }
+
+    private List<Long> versions() {
+        entityManager.clear();
+        return clients.stream().map(client -> entityManager.find(Client.class, client.getId()).getVersion()).toList();
+    }
+
+    private Client persistClient(String nom, CustomerTier tier, int totalOrders, double totalSpent) {
+        Client client = Client.builder()
+                .nom(nom)
+                .email(nom + "@example.com")
+                .telephone("0600000000")
+                .tier(tier)
+                .totalOrders(totalOrders)
+                .totalSpent(Money.of(totalSpent))
+                .build();
+        entityManager.persist(client);
+        return client;
+    }
+}
@@ -1,9 +1,14 @@
 package org.example.smartshop.services;
 
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.example.smartshop.dtos.request.OrderRequest;
+import org.example.smartshop.dtos.response.OrderBatchResponse;
+import org.example.smartshop.dtos.response.OrderQuoteResponse;
 import org.example.smartshop.dtos.response.OrderResponse;
 import org.example.smartshop.entity.*;
 import org.example.smartshop.enums.CustomerTier;
+import org.example.smartshop.enums.OrderBatchStatus;
 import org.example.smartshop.enums.OrderStatus;
 import org.example.smartshop.exception.BusinessException;
 import org.example.smartshop.exception.ResourceNotFoundException;
@@ -11,28 +16,41 @@ import org.example.smartshop.mapper.OrderMapper;
 import org.example.smartshop.repositories.OrderRepository;
 import org.example.smartshop.services.ClientService;
 import org.example.smartshop.services.ProductService;
-import org.example.smartshop.services.PromoCodeService;
 import org.example.smartshop.services.impl.OrderServiceImpl;
+import org.example.smartshop.utils.Money;
+import org.example.smartshop.utils.PricingRuleSet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceImplTest {
 
+    private static final PricingRuleSet RULES = PricingRuleSet.compile(
+            List.of(
+                    PricingRule.builder().tier(CustomerTier.SILVER).minSousTotal(Money.of(500.0)).tauxRemise(0.05).build(),
+                    PricingRule.builder().tier(CustomerTier.GOLD).minSousTotal(Money.of(800.0)).tauxRemise(0.10).build(),
+                    PricingRule.builder().tier(CustomerTier.PLATINUM).minSousTotal(Money.of(1200.0)).tauxRemise(0.15).build()),
+            List.of(PromoCode.builder().id(1L).code("PROMO-2024").tauxRemise(0.05).build()));
+
     @Mock
     private OrderRepository orderRepository;
 
@@ -42,12 +60,30 @@ class OrderServiceImplTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductPriceCache productPriceCache;
+
+    @Mock
+    private PricingEngine pricingEngine;
+
     @Mock
     private PromoCodeService promoCodeService;
 
+    @Mock
+    private PromoCodeService.PromoReservation promoReservation;
+
+    @Mock
+    private StockAllocator stockAllocator;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
     @Mock
     private OrderMapper orderMapper;
 
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -58,19 +94,21 @@ class OrderServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(pricingEngine.rules()).thenReturn(RULES);
+
         client = Client.builder()
                 .id(1L)
                 .nom("Test Client")
                 .email("test@test.com")
                 .tier(CustomerTier.BASIC)
                 .totalOrders(0)
-                .totalSpent(0.0)
+                .totalSpent(Money.ZERO)
                 .build();
 
         product = Product.builder()
                 .id(1L)
                 .nom("Laptop")
-                .prixUnitaire(1000.0)
+                .prixUnitaire(Money.of(1000.0))
                 .stock(10)
                 .deleted(false)
                 .orderItems(new ArrayList<>())
@@ -81,12 +119,12 @@ class OrderServiceImplTest {
                 .client(client)
                 .dateCreation(LocalDateTime.now())
                 .status(OrderStatus.PENDING)
-                .sousTotal(1000.0)
-                .montantRemise(0.0)
-                .montantHtApresRemise(1000.0)
-                .tva(200.0)
-                .totalTtc(1200.0)
-                .montantRestant(1200.0)
+                .sousTotal(Money.of(1000.0))
+                .montantRemise(Money.ZERO)
+                .montantHtApresRemise(Money.of(1000.0))
+                .tva(Money.of(200.0))
+                .totalTtc(Money.of(1200.0))
+                .montantRestant(Money.of(1200.0))
                 .tauxTva(0.20)
                 .orderItems(new ArrayList<>())
                 .build();
@@ -105,29 +143,30 @@ class OrderServiceImplTest {
     @Test
     void createOrder_WithBasicTier_NoDiscount_Success() {
         when(clientService.getClientEntityById(1L)).thenReturn(client);
-        when(productService.getProductEntityById(1L)).thenReturn(product);
+        when(productService.getProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
         when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
 
         OrderResponse response = orderService.createOrder(orderRequest);
 
         assertNotNull(response);
-        verify(productService).decrementStock(1L, 1);
+        verify(stockAllocator).reserve(Map.of(1L, 1));
         verify(orderRepository).save(any(Order.class));
+        verify(stockReservationService).reserve(order);
     }
 
     @Test
     void createOrder_WithSilverTier_AppliesDiscount() {
         client.setTier(CustomerTier.SILVER);
-        product.setPrixUnitaire(600.0);
+        product.setPrixUnitaire(Money.of(600.0));
 
         when(clientService.getClientEntityById(1L)).thenReturn(client);
-        when(productService.getProductEntityById(1L)).thenReturn(product);
+        when(productService.getProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order savedOrder = invocation.getArgument(0);
-            assertEquals(600.0, savedOrder.getSousTotal());
-            assertEquals(30.0, savedOrder.getMontantRemise()); // 5% of 600
-            assertEquals(570.0, savedOrder.getMontantHtApresRemise());
+            assertEquals(Money.of(600.0), savedOrder.getSousTotal());
+            assertEquals(Money.of(30.0), savedOrder.getMontantRemise()); // 5% of 600
+            assertEquals(Money.of(570.0), savedOrder.getMontantHtApresRemise());
             return savedOrder;
         });
         when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
@@ -142,19 +181,81 @@ class OrderServiceImplTest {
         orderRequest.setCodePromo("PROMO-2024");
 
         when(clientService.getClientEntityById(1L)).thenReturn(client);
-        when(productService.getProductEntityById(1L)).thenReturn(product);
-        when(promoCodeService.isValidPromoCode("PROMO-2024")).thenReturn(true);
-        when(promoCodeService.getPromoDiscount()).thenReturn(0.05);
+        when(productService.getProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
+        when(promoCodeService.reserve(any(), eq(1L))).thenReturn(promoReservation);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order savedOrder = invocation.getArgument(0);
+            assertEquals(Money.of(50.0), savedOrder.getMontantRemise()); // 5% of 1000
+            assertEquals("PROMO-2024", savedOrder.getCodePromo());
+            return savedOrder;
+        });
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
+
+        orderService.createOrder(orderRequest);
+
+        verify(pricingEngine, times(1)).rules();
+        verify(promoCodeService, times(1)).reserve(any(), eq(1L));
+        verify(promoReservation).redeem(any());
+    }
+
+    @Test
+    void createOrder_WithExhaustedPromoCode_NoDiscount() {
+        orderRequest.setCodePromo("PROMO-2024");
+
+        when(clientService.getClientEntityById(1L)).thenReturn(client);
+        when(productService.getProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
+        when(promoCodeService.reserve(any(), eq(1L))).thenReturn(null);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order savedOrder = invocation.getArgument(0);
+            assertEquals(Money.ZERO, savedOrder.getMontantRemise());
+            assertNull(savedOrder.getCodePromo());
+            return savedOrder;
+        });
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
+
+        orderService.createOrder(orderRequest);
+
+        verify(orderRepository).save(any(Order.class));
+    }
+
+    @Test
+    void createOrder_PromoNotBeatingLoyaltyRate_LeavesPromoUnused() {
+        client.setTier(CustomerTier.SILVER);
+        product.setPrixUnitaire(Money.of(600.0));
+        orderRequest.setCodePromo("PROMO-2024");
+
+        when(clientService.getClientEntityById(1L)).thenReturn(client);
+        when(productService.getProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order savedOrder = invocation.getArgument(0);
+            assertEquals(Money.of(30.0), savedOrder.getMontantRemise()); // loyalty 5% of 600, same as the promo
+            assertNull(savedOrder.getCodePromo());
+            return savedOrder;
+        });
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
+
+        orderService.createOrder(orderRequest);
+
+        verify(promoCodeService, never()).reserve(any(), any());
+    }
+
+    @Test
+    void createOrder_WithUnknownPromoCode_NoDiscount() {
+        orderRequest.setCodePromo("PROMO-XXXX");
+
+        when(clientService.getClientEntityById(1L)).thenReturn(client);
+        when(productService.getProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order savedOrder = invocation.getArgument(0);
-            assertEquals(50.0, savedOrder.getMontantRemise()); // 5% of 1000
+            assertEquals(Money.ZERO, savedOrder.getMontantRemise());
+            assertNull(savedOrder.getCodePromo());
             return savedOrder;
         });
         when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
 
         orderService.createOrder(orderRequest);
 
-        verify(promoCodeService, times(2)).isValidPromoCode("PROMO-2024"); // Changed to times(2)
+        verify(promoCodeService, never()).reserve(any(), any());
     }
 
 
@@ -163,7 +264,7 @@ class OrderServiceImplTest {
         product.setStock(0);
 
         when(clientService.getClientEntityById(1L)).thenReturn(client);
-        when(productService.getProductEntityById(1L)).thenReturn(product);
+        when(productService.getProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order savedOrder = invocation.getArgument(0);
             assertEquals(OrderStatus.REJECTED, savedOrder.getStatus());
@@ -173,7 +274,103 @@ class OrderServiceImplTest {
 
         orderService.createOrder(orderRequest);
 
-        verify(productService, never()).decrementStock(anyLong(), anyInt());
+        verify(stockAllocator, never()).reserve(anyMap());
+        verify(stockReservationService, never()).reserve(any(Order.class));
+    }
+
+    @Test
+    void createOrder_RepeatedProductLines_LoadsProductsOnce() {
+        OrderRequest.OrderItemRequest line = OrderRequest.OrderItemRequest.builder()
+                .productId(1L)
+                .quantite(2)
+                .build();
+        orderRequest.setItems(List.of(line, line));
+
+        when(clientService.getClientEntityById(1L)).thenReturn(client);
+        when(productService.getProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order savedOrder = invocation.getArgument(0);
+            assertEquals(2, savedOrder.getOrderItems().size());
+            assertEquals(Money.of(4000.0), savedOrder.getSousTotal());
+            return savedOrder;
+        });
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
+
+        orderService.createOrder(orderRequest);
+
+        verify(productService, times(1)).getProductEntitiesByIds(Set.of(1L));
+        verify(productService, never()).getProductEntityById(anyLong());
+        verify(stockAllocator).reserve(Map.of(1L, 4));
+    }
+
+    @Test
+    void createOrder_StockTakenConcurrently_ReturnsRejectedOrder() {
+        when(clientService.getClientEntityById(1L)).thenReturn(client);
+        when(productService.getProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
+        when(stockAllocator.reserve(Map.of(1L, 1))).thenReturn(List.of(1L));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order savedOrder = invocation.getArgument(0);
+            assertEquals(OrderStatus.REJECTED, savedOrder.getStatus());
+            return savedOrder;
+        });
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
+
+        orderService.createOrder(orderRequest);
+
+        verify(orderRepository, times(1)).save(any(Order.class));
+    }
+
+    @Test
+    void createOrders_ResolvesReferencesOnceAndReportsEachOrder() {
+        OrderRequest unknownClient = OrderRequest.builder()
+                .clientId(2L)
+                .items(orderRequest.getItems())
+                .build();
+
+        when(clientService.findClientEntitiesByIds(Set.of(1L, 2L))).thenReturn(Map.of(1L, client));
+        when(productService.findProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
+
+        OrderBatchResponse response = orderService.createOrders(List.of(orderRequest, unknownClient));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getRejected());
+        assertEquals(OrderBatchStatus.CREATED, response.getResults().get(0).getStatus());
+        assertEquals(OrderBatchStatus.REJECTED, response.getResults().get(1).getStatus());
+        assertEquals("Client not found with id: 2", response.getResults().get(1).getReason());
+        verify(stockAllocator, times(1)).reserve(Map.of(1L, 1));
+        verify(productService, never()).getProductEntityById(anyLong());
+    }
+
+    @Test
+    void createOrders_InvalidEntries_RejectedAtTheirIndexOnly() {
+        OrderRequest noClient = OrderRequest.builder()
+                .items(orderRequest.getItems())
+                .build();
+        OrderRequest badLine = OrderRequest.builder()
+                .clientId(1L)
+                .items(List.of(OrderRequest.OrderItemRequest.builder().productId(1L).quantite(0).build()))
+                .codePromo("PROMO")
+                .build();
+
+        when(clientService.findClientEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, client));
+        when(productService.findProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
+
+        List<OrderRequest> requests = new ArrayList<>(List.of(noClient, orderRequest, badLine));
+        requests.add(null);
+        OrderBatchResponse response = orderService.createOrders(requests);
+
+        assertEquals(1, response.getCreated());
+        assertEquals(3, response.getRejected());
+        assertEquals("Client ID is required", response.getResults().get(0).getReason());
+        assertEquals(OrderBatchStatus.CREATED, response.getResults().get(1).getStatus());
+        assertEquals("Code promo must match format PROMO-XXXX; Quantite must be at least 1",
+                response.getResults().get(2).getReason());
+        assertEquals("Order cannot be null", response.getResults().get(3).getReason());
+        verify(stockAllocator, times(1)).reserve(anyMap());
     }
 
     @Test
@@ -185,23 +382,24 @@ class OrderServiceImplTest {
 
     @Test
     void confirmOrder_FullyPaid_Success() {
-        order.setMontantRestant(0.0);
+        order.setMontantRestant(Money.ZERO);
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
         when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
 
         OrderResponse response = orderService.confirmOrder(1L);
 
         assertNotNull(response);
-        verify(clientService).updateClientStats(1L, 1200.0);
+        verify(clientService).recordOrderStats(1L, Money.of(1200.0));
+        verify(stockReservationService).confirm(1L);
     }
 
     @Test
     void confirmOrder_NotFullyPaid_ThrowsBusinessException() {
-        order.setMontantRestant(100.0);
+        order.setMontantRestant(Money.of(100.0));
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
 
         assertThrows(BusinessException.class, () -> orderService.confirmOrder(1L));
     }
@@ -209,16 +407,16 @@ class OrderServiceImplTest {
     @Test
     void confirmOrder_NotPending_ThrowsBusinessException() {
         order.setStatus(OrderStatus.CONFIRMED);
-        order.setMontantRestant(0.0);
+        order.setMontantRestant(Money.ZERO);
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
 
         assertThrows(BusinessException.class, () -> orderService.confirmOrder(1L));
     }
 
     @Test
     void cancelOrder_PendingOrder_Success() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
         when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
 
@@ -226,31 +424,32 @@ class OrderServiceImplTest {
 
         assertNotNull(response);
         verify(orderRepository).save(any(Order.class));
+        verify(stockReservationService).release(1L);
     }
 
     @Test
     void cancelOrder_NotPending_ThrowsBusinessException() {
         order.setStatus(OrderStatus.CONFIRMED);
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
 
         assertThrows(BusinessException.class, () -> orderService.cancelOrder(1L));
     }
 
     @Test
     void getOrderById_OrderExists_ReturnsOrder() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
         when(orderMapper.toResponse(order)).thenReturn(new OrderResponse());
 
         OrderResponse response = orderService.getOrderById(1L);
 
         assertNotNull(response);
-        verify(orderRepository).findById(1L);
+        verify(orderRepository).findWithItemsById(1L);
     }
 
     @Test
     void getOrderById_OrderNotFound_ThrowsResourceNotFoundException() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderById(1L));
     }
@@ -258,13 +457,13 @@ class OrderServiceImplTest {
     @Test
     void calculateDiscount_GoldTierWithMinimumAmount_AppliesDiscount() {
         client.setTier(CustomerTier.GOLD);
-        product.setPrixUnitaire(900.0);
+        product.setPrixUnitaire(Money.of(900.0));
 
         when(clientService.getClientEntityById(1L)).thenReturn(client);
-        when(productService.getProductEntityById(1L)).thenReturn(product);
+        when(productService.getProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order savedOrder = invocation.getArgument(0);
-            assertEquals(90.0, savedOrder.getMontantRemise()); // 10% of 900
+            assertEquals(Money.of(90.0), savedOrder.getMontantRemise()); // 10% of 900
             return savedOrder;
         });
         when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
@@ -277,13 +476,13 @@ class OrderServiceImplTest {
     @Test
     void calculateDiscount_PlatinumTierWithMinimumAmount_AppliesDiscount() {
         client.setTier(CustomerTier.PLATINUM);
-        product.setPrixUnitaire(1500.0);
+        product.setPrixUnitaire(Money.of(1500.0));
 
         when(clientService.getClientEntityById(1L)).thenReturn(client);
-        when(productService.getProductEntityById(1L)).thenReturn(product);
+        when(productService.getProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order savedOrder = invocation.getArgument(0);
-            assertEquals(225.0, savedOrder.getMontantRemise()); // 15% of 1500
+            assertEquals(Money.of(225.0), savedOrder.getMontantRemise()); // 15% of 1500
             return savedOrder;
         });
         when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
@@ -296,15 +495,15 @@ class OrderServiceImplTest {
     @Test
     void calculateTVA_OnAmountAfterDiscount() {
         client.setTier(CustomerTier.SILVER);
-        product.setPrixUnitaire(600.0);
+        product.setPrixUnitaire(Money.of(600.0));
 
         when(clientService.getClientEntityById(1L)).thenReturn(client);
-        when(productService.getProductEntityById(1L)).thenReturn(product);
+        when(productService.getProductEntitiesByIds(Set.of(1L))).thenReturn(Map.of(1L, product));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order savedOrder = invocation.getArgument(0);
-            assertEquals(570.0, savedOrder.getMontantHtApresRemise()); // 600 - 30
-            assertEquals(114.0, savedOrder.getTva()); // 20% of 570
-            assertEquals(684.0, savedOrder.getTotalTtc()); // 570 + 114
+            assertEquals(Money.of(570.0), savedOrder.getMontantHtApresRemise()); // 600 - 30
+            assertEquals(Money.of(114.0), savedOrder.getTva()); // 20% of 570
+            assertEquals(Money.of(684.0), savedOrder.getTotalTtc()); // 570 + 114
             return savedOrder;
         });
         when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
@@ -313,4 +512,34 @@ class OrderServiceImplTest {
 
         verify(orderRepository).save(any(Order.class));
     }
+
+    @Test
+    void quoteOrder_PricesFromCacheWithoutWriting() {
+        orderRequest.setCodePromo("PROMO-2024");
+
+        when(clientService.getClientEntityById(1L)).thenReturn(client);
+        when(productPriceCache.getPrices(Set.of(1L))).thenReturn(Map.of(1L,
+                new ProductPriceCache.ProductPrice(1L, "Laptop", Money.of(600.0))));
+        when(promoCodeService.isAvailable(any(PricingRuleSet.PromoRule.class), eq(1L))).thenReturn(true);
+
+        OrderQuoteResponse quote = orderService.quoteOrder(orderRequest);
+
+        assertEquals(600.0, quote.getSousTotal());
+        assertEquals(30.0, quote.getMontantRemise());
+        assertEquals(114.0, quote.getTva());
+        assertEquals(684.0, quote.getTotalTtc());
+        assertEquals("PROMO-2024", quote.getCodePromo());
+        assertEquals(1, quote.getItems().size());
+        verifyNoInteractions(productService, stockAllocator, stockReservationService, orderRepository);
+        verify(promoCodeService, never()).reserve(any(), anyLong());
+    }
+
+    @Test
+    void quoteOrder_UnknownProduct_ThrowsResourceNotFoundException() {
+        when(clientService.getClientEntityById(1L)).thenReturn(client);
+        when(productPriceCache.getPrices(Set.of(1L))).thenReturn(Map.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> orderService.quoteOrder(orderRequest));
+        verifyNoInteractions(orderRepository);
+    }
 }
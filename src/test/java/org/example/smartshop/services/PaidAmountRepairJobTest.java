@@ -0,0 +1,127 @@
+package org.example.smartshop.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.smartshop.entity.Client;
+import org.example.smartshop.entity.Order;
+import org.example.smartshop.entity.Payment;
+import org.example.smartshop.entity.User;
+import org.example.smartshop.enums.PaymentMethod;
+import org.example.smartshop.enums.PaymentStatus;
+import org.example.smartshop.enums.UserRole;
+import org.example.smartshop.mapper.OrderMapperImpl;
+import org.example.smartshop.services.impl.PaidAmountRepairJob;
+import org.example.smartshop.utils.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A chunk size of 2 makes the five orders span three chunks
+@DataJpaTest(properties = "smartshop.payments.repair-chunk-size=2")
+@ActiveProfiles("test")
+@Import({PaidAmountRepairJob.class, OrderMapperImpl.class})
+class PaidAmountRepairJobTest {
+
+    @Autowired
+    private PaidAmountRepairJob repairJob;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .username("alice")
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .build();
+        entityManager.persist(user);
+
+        client = Client.builder()
+                .nom("alice")
+                .email("alice@example.com")
+                .telephone("0600000000")
+                .user(user)
+                .build();
+        entityManager.persist(client);
+    }
+
+    @Test
+    void repair_DriftedOrdersRecomputed_CorrectOrdersUntouched() {
+        Order missingPayment = persistOrder(0.0, 300.0);
+        persistPayment(missingPayment, 1, 100.0, PaymentStatus.ENCAISSE);
+
+        Order correct = persistOrder(50.0, 250.0);
+        persistPayment(correct, 1, 50.0, PaymentStatus.ENCAISSE);
+
+        Order pendingCheque = persistOrder(0.0, 300.0);
+        persistPayment(pendingCheque, 1, 60.0, PaymentStatus.EN_ATTENTE);
+
+        Order phantomAmount = persistOrder(200.0, 100.0);
+
+        Order fullyPaid = persistOrder(300.0, 0.0);
+        persistPayment(fullyPaid, 1, 100.0, PaymentStatus.ENCAISSE);
+        persistPayment(fullyPaid, 2, 200.0, PaymentStatus.ENCAISSE);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        repairJob.repair();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertAmounts(missingPayment, 100.0, 200.0, 1L);
+        assertAmounts(correct, 50.0, 250.0, 0L);
+        assertAmounts(pendingCheque, 0.0, 300.0, 0L);
+        assertAmounts(phantomAmount, 0.0, 300.0, 1L);
+        assertAmounts(fullyPaid, 300.0, 0.0, 0L);
+    }
+
+    @Test
+    void repair_NoOrders_DoesNothing() {
+        assertDoesNotThrow(() -> repairJob.repair());
+    }
+
+    private void assertAmounts(Order order, double encaisse, double restant, Long version) {
+        Order reloaded = entityManager.find(Order.class, order.getId());
+        assertEquals(Money.of(encaisse), reloaded.getMontantEncaisse());
+        assertEquals(Money.of(restant), reloaded.getMontantRestant());
+        assertEquals(version, reloaded.getVersion());
+    }
+
+    private Order persistOrder(double encaisse, double restant) {
+        Order order = Order.builder()
+                .client(client)
+                .dateCreation(LocalDateTime.now())
+                .sousTotal(Money.of(250.0))
+                .montantHtApresRemise(Money.of(250.0))
+                .tva(Money.of(50.0))
+                .totalTtc(Money.of(300.0))
+                .montantEncaisse(Money.of(encaisse))
+                .montantRestant(Money.of(restant))
+                .build();
+        entityManager.persist(order);
+        return order;
+    }
+
+    private void persistPayment(Order order, int numero, double montant, PaymentStatus status) {
+        entityManager.persist(Payment.builder()
+                .order(order)
+                .numeroPaiement(numero)
+                .montant(Money.of(montant))
+                .typePaiement(PaymentMethod.CHEQUE)
+                .datePaiement(LocalDateTime.now())
+                .status(status)
+                .reference("CHQ-" + order.getId() + "-" + numero)
+                .banque("CIH")
+                .build());
+    }
+}
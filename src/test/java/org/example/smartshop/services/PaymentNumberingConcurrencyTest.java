@@ -0,0 +1,145 @@
+package org.example.smartshop.services;
+
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.smartshop.config.LoyaltyProperties;
+import org.example.smartshop.dtos.request.PaymentRequest;
+import org.example.smartshop.dtos.response.PaymentResponse;
+import org.example.smartshop.entity.Client;
+import org.example.smartshop.entity.Order;
+import org.example.smartshop.entity.User;
+import org.example.smartshop.enums.OrderStatus;
+import org.example.smartshop.enums.PaymentMethod;
+import org.example.smartshop.enums.UserRole;
+import org.example.smartshop.mapper.ClientMapperImpl;
+import org.example.smartshop.mapper.OrderMapperImpl;
+import org.example.smartshop.mapper.PaymentMapperImpl;
+import org.example.smartshop.mapper.ProductMapperImpl;
+import org.example.smartshop.services.impl.*;
+import org.example.smartshop.utils.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payment-numbering;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=20"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({
+        OrderServiceImpl.class, ClientServiceImpl.class, PaymentServiceImpl.class, ProductServiceImpl.class,
+        PricingEngineImpl.class, PromoCodeServiceImpl.class, StockReservationServiceImpl.class,
+        DatabaseStockAllocator.class, ProductPriceCacheImpl.class, ProductCatalogCache.class, ProductSearchServiceImpl.class,
+        SimpleMeterRegistry.class,
+        OrderMapperImpl.class, ClientMapperImpl.class, PaymentMapperImpl.class, ProductMapperImpl.class,
+        LoyaltyProperties.class, LocalValidatorFactoryBean.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentNumberingConcurrencyTest {
+
+    private static final int PAYMENTS = 200;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void createPayment_ParallelPaymentsOnOneOrder_GetDistinctConsecutiveNumbers() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long orderId = transactionTemplate.execute(status -> persistOrder());
+
+        ExecutorService executor = Executors.newFixedThreadPool(50);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaymentResponse>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < PAYMENTS; i++) {
+                PaymentRequest request = PaymentRequest.builder()
+                        .orderId(orderId)
+                        .montant(1.0)
+                        .typePaiement(PaymentMethod.VIREMENT)
+                        .reference("VIR-" + i)
+                        .banque("CIH")
+                        .build();
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return paymentService.createPayment(request);
+                }));
+            }
+            start.countDown();
+
+            Set<Integer> numbers = new HashSet<>();
+            for (Future<PaymentResponse> future : futures) {
+                numbers.add(future.get().getNumeroPaiement());
+            }
+
+            assertEquals(IntStream.rangeClosed(1, PAYMENTS).boxed().collect(Collectors.toSet()), numbers);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Integer counter = transactionTemplate.execute(status ->
+                entityManager.find(Order.class, orderId).getDernierNumeroPaiement());
+        assertEquals(PAYMENTS, counter);
+    }
+
+    private Long persistOrder() {
+        User user = User.builder()
+                .username("numbering")
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .build();
+        entityManager.persist(user);
+
+        Client client = Client.builder()
+                .nom("numbering")
+                .email("numbering@example.com")
+                .telephone("0600000000")
+                .user(user)
+                .build();
+        entityManager.persist(client);
+
+        Order order = Order.builder()
+                .client(client)
+                .dateCreation(LocalDateTime.now())
+                .sousTotal(Money.of(10000.0))
+                .montantHtApresRemise(Money.of(10000.0))
+                .tva(Money.of(2000.0))
+                .totalTtc(Money.of(12000.0))
+                .montantRestant(Money.of(12000.0))
+                .status(OrderStatus.PENDING)
+                .build();
+        entityManager.persist(order);
+        return order.getId();
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.smartshop.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.example.smartshop.dtos.request.ProductFilterRequest;
+import org.example.smartshop.dtos.response.ProductPageResponse;
+import org.example.smartshop.dtos.response.ProductResponse;
+import org.example.smartshop.entity.Product;
+import org.example.smartshop.enums.ProductSort;
+import org.example.smartshop.exception.BusinessException;
+import org.example.smartshop.mapper.OrderMapperImpl;
+import org.example.smartshop.mapper.ProductMapperImpl;
+import org.example.smartshop.services.impl.ProductCatalogCache;
+import org.example.smartshop.services.impl.ProductSearchServiceImpl;
+import org.example.smartshop.services.impl.ProductServiceImpl;
+import org.example.smartshop.utils.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({
+        ProductServiceImpl.class, ProductCatalogCache.class, ProductSearchServiceImpl.class, SimpleMeterRegistry.class,
+        ProductMapperImpl.class, OrderMapperImpl.class
+})
+class ProductBrowseTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Runs of equal prices and names, so every keyset has to break ties on id
+        String[] noms = {"Clavier", "Souris", "Clavier", "Ecran", "Souris", "Casque", "Clavier", "Ecran", "Micro"};
+        double[] prix = {50.0, 20.0, 50.0, 200.0, 20.0, 80.0, 50.0, 200.0, 20.0};
+        for (int i = 0; i < noms.length; i++) {
+            products.add(persistProduct(noms[i], prix[i], i % 3 == 0 ? 0 : 5, false));
+        }
+        persistProduct("Archive", 10.0, 5, true);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ProductSort.class)
+    void browseProducts_PagesPastEqualKeys_VisitsEveryProductOnceInOrder(ProductSort sort) {
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProductPageResponse page = productService.browseProducts(ProductFilterRequest.builder()
+                    .sort(sort)
+                    .size(2)
+                    .cursor(cursor)
+                    .build());
+            page.getItems().stream().map(ProductResponse::getId).forEach(visited::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(products.stream().sorted(order(sort)).map(Product::getId).toList(), visited);
+    }
+
+    @Test
+    void browseProducts_Filters_CombineWithTheKeyset() {
+        ProductPageResponse first = productService.browseProducts(ProductFilterRequest.builder()
+                .sort(ProductSort.PRIX_ASC)
+                .minPrix(20.0)
+                .maxPrix(80.0)
+                .inStock(true)
+                .size(3)
+                .build());
+        ProductPageResponse second = productService.browseProducts(ProductFilterRequest.builder()
+                .sort(ProductSort.PRIX_ASC)
+                .minPrix(20.0)
+                .maxPrix(80.0)
+                .inStock(true)
+                .size(3)
+                .cursor(first.getNextCursor())
+                .build());
+
+        assertEquals(List.of(products.get(1).getId(), products.get(4).getId(), products.get(8).getId()),
+                first.getItems().stream().map(ProductResponse::getId).toList());
+        assertEquals(List.of(products.get(2).getId(), products.get(5).getId()),
+                second.getItems().stream().map(ProductResponse::getId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void browseProducts_NomPrefix_CaseInsensitive() {
+        ProductPageResponse page = productService.browseProducts(ProductFilterRequest.builder()
+                .sort(ProductSort.NOM)
+                .nom("cla")
+                .build());
+
+        assertEquals(List.of(products.get(0).getId(), products.get(2).getId(), products.get(6).getId()),
+                page.getItems().stream().map(ProductResponse::getId).toList());
+    }
+
+    @Test
+    void browseProducts_CursorFromAnotherSort_Rejected() {
+        String cursor = productService.browseProducts(ProductFilterRequest.builder()
+                .sort(ProductSort.NOM)
+                .size(1)
+                .build()).getNextCursor();
+
+        assertThrows(BusinessException.class, () -> productService.browseProducts(ProductFilterRequest.builder()
+                .sort(ProductSort.PRIX_ASC)
+                .cursor(cursor)
+                .build()));
+    }
+
+    private static Comparator<Product> order(ProductSort sort) {
+        Comparator<Product> byId = Comparator.comparing(Product::getId);
+        return switch (sort) {
+            case ID -> byId;
+            case PRIX_ASC -> Comparator.comparing(Product::getPrixUnitaire).thenComparing(byId);
+            case PRIX_DESC -> Comparator.comparing(Product::getPrixUnitaire).thenComparing(byId).reversed();
+            case NOM -> Comparator.comparing(Product::getNom).thenComparing(byId);
+        };
+    }
+
+    private Product persistProduct(String nom, double prix, int stock, boolean deleted) {
+        Product product = Product.builder()
+                .nom(nom)
+                .prixUnitaire(Money.of(prix))
+                .stock(stock)
+                .deleted(deleted)
+                .build();
+        entityManager.persist(product);
+        return product;
+    }
+}
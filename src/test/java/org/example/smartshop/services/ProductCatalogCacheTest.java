@@ -0,0 +1,82 @@
+package org.example.smartshop.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.smartshop.dtos.response.ProductResponse;
+import org.example.smartshop.events.ProductChangedEvent;
+import org.example.smartshop.events.StockChangedEvent;
+import org.example.smartshop.repositories.ProductRepository;
+import org.example.smartshop.services.impl.ProductCatalogCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductCatalogCacheTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductCatalogCache catalogCache = new ProductCatalogCache(productRepository, new SimpleMeterRegistry(),
+            Duration.ofMinutes(10), 100, 10, Duration.ofMinutes(10));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ProductResponse load(Long id) {
+        loads.incrementAndGet();
+        return ProductResponse.builder().id(id).nom("Laptop").prixUnitaire(1000.0).stock(10).build();
+    }
+
+    @Test
+    void getProduct_SecondRead_ServedFromCache() {
+        when(productRepository.findStocksByIdIn(any())).thenReturn(List.of(stock(1L, 7)));
+
+        catalogCache.getProduct(1L, this::load);
+        ProductResponse product = catalogCache.getProduct(1L, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(7, product.getStock());
+        verify(productRepository, times(1)).findStocksByIdIn(any());
+    }
+
+    @Test
+    void onStockChanged_RereadsStockButKeepsProduct() {
+        when(productRepository.findStocksByIdIn(any()))
+                .thenReturn(List.of(stock(1L, 7)))
+                .thenReturn(List.of(stock(1L, 2)));
+
+        catalogCache.getProduct(1L, this::load);
+        catalogCache.onStockChanged(new StockChangedEvent(List.of(1L)));
+        ProductResponse product = catalogCache.getProduct(1L, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(2, product.getStock());
+    }
+
+    @Test
+    void onProductChanged_ReloadsProduct() {
+        when(productRepository.findStocksByIdIn(any())).thenReturn(List.of(stock(1L, 7)));
+
+        catalogCache.getProduct(1L, this::load);
+        catalogCache.onProductChanged(new ProductChangedEvent(1L));
+        catalogCache.getProduct(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private static ProductRepository.ProductStock stock(Long id, Integer stock) {
+        return new ProductRepository.ProductStock() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getStock() {
+                return stock;
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.smartshop.services;
+
+import org.example.smartshop.entity.PromoRedemption;
+import org.example.smartshop.repositories.PromoRedemptionRepository;
+import org.example.smartshop.services.impl.PromoCodeServiceImpl;
+import org.example.smartshop.utils.PricingRuleSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class PromoCodeServiceImplTest {
+
+    private final PromoRedemptionRepository promoRedemptionRepository = mock(PromoRedemptionRepository.class);
+    private final PromoCodeServiceImpl promoCodeService = new PromoCodeServiceImpl(
+            promoRedemptionRepository, mock(PlatformTransactionManager.class), 500);
+
+    @Test
+    void reserve_ParallelClientsOnCappedCode_NeverExceedsCap() throws Exception {
+        PricingRuleSet.PromoRule promo = new PricingRuleSet.PromoRule(
+                1L, "PROMO-2024", 500, null, null, 100, Integer.MAX_VALUE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            for (long clientId = 1; clientId <= 1000; clientId++) {
+                Long id = clientId;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return promoCodeService.reserve(promo, id) != null;
+                }));
+            }
+            start.countDown();
+
+            int granted = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get()) {
+                    granted++;
+                }
+            }
+            assertEquals(100, granted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reserve_SameClientOverPerClientCap_ReturnsNull() {
+        PricingRuleSet.PromoRule promo = new PricingRuleSet.PromoRule(
+                1L, "PROMO-2024", 500, null, null, Integer.MAX_VALUE, 2);
+
+        assertNotNull(promoCodeService.reserve(promo, 7L));
+        assertNotNull(promoCodeService.reserve(promo, 7L));
+        assertNull(promoCodeService.reserve(promo, 7L));
+        assertNotNull(promoCodeService.reserve(promo, 8L));
+    }
+
+    @Test
+    void flushRedemptions_RowFailingForAnotherReason_KeptForTheNextFlush() {
+        PricingRuleSet.PromoRule promo = new PricingRuleSet.PromoRule(
+                1L, "PROMO-2024", 500, null, null, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        promoCodeService.reserve(promo, 7L).redeem(100L);
+        promoCodeService.reserve(promo, 8L).redeem(101L);
+        promoCodeService.reserve(promo, 9L).redeem(102L);
+
+        doThrow(new DataIntegrityViolationException("duplicate"))
+                .when(promoRedemptionRepository).insertAll(argThat(batch -> batch.size() == 3));
+        doThrow(new DataIntegrityViolationException("duplicate"))
+                .when(promoRedemptionRepository).insertAll(argThat(batch -> isOrder(batch, 100L)));
+        doThrow(new QueryTimeoutException("timeout"))
+                .doNothing()
+                .when(promoRedemptionRepository).insertAll(argThat(batch -> isOrder(batch, 101L)));
+
+        promoCodeService.flushRedemptions();
+        clearInvocations(promoRedemptionRepository);
+        promoCodeService.flushRedemptions();
+
+        verify(promoRedemptionRepository).insertAll(argThat(batch -> isOrder(batch, 101L)));
+        verify(promoRedemptionRepository, times(1)).insertAll(anyList());
+
+        clearInvocations(promoRedemptionRepository);
+        promoCodeService.flushRedemptions();
+        verify(promoRedemptionRepository, never()).insertAll(anyList());
+    }
+
+    private static boolean isOrder(List<PromoRedemption> batch, Long orderId) {
+        return batch != null && batch.size() == 1 && batch.get(0).getOrderId().equals(orderId);
+    }
+}
@@ -0,0 +1,375 @@
+package org.example.smartshop.services;
+
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.smartshop.config.LoyaltyProperties;
+import org.example.smartshop.dtos.request.OrderFilterRequest;
+import org.example.smartshop.dtos.request.OrderRequest;
+import org.example.smartshop.dtos.request.PaymentRequest;
+import org.example.smartshop.dtos.request.ProductFilterRequest;
+import org.example.smartshop.dtos.request.UpdatePaymentStatusRequest;
+import org.example.smartshop.entity.*;
+import org.example.smartshop.enums.OrderStatus;
+import org.example.smartshop.enums.PaymentMethod;
+import org.example.smartshop.enums.PaymentStatus;
+import org.example.smartshop.enums.ReservationStatus;
+import org.example.smartshop.enums.UserRole;
+import org.example.smartshop.mapper.ClientMapperImpl;
+import org.example.smartshop.mapper.OrderMapperImpl;
+import org.example.smartshop.mapper.PaymentMapperImpl;
+import org.example.smartshop.mapper.ProductMapperImpl;
+import org.example.smartshop.services.impl.*;
+import org.example.smartshop.utils.Money;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pins the number of JDBC statements each service method issues, so a lost fetch plan fails the build
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({
+        OrderServiceImpl.class, ClientServiceImpl.class, PaymentServiceImpl.class, ProductServiceImpl.class,
+        PricingEngineImpl.class, PromoCodeServiceImpl.class, StockReservationServiceImpl.class,
+        DatabaseStockAllocator.class, ProductPriceCacheImpl.class, ProductCatalogCache.class, ProductSearchServiceImpl.class,
+        SimpleMeterRegistry.class,
+        OrderMapperImpl.class, ClientMapperImpl.class, PaymentMapperImpl.class, ProductMapperImpl.class,
+        LoyaltyProperties.class, LocalValidatorFactoryBean.class, ServiceQueryCountTest.CountingDataSourceConfig.class
+})
+class ServiceQueryCountTest {
+
+    // Counted on the DataSource so JdbcTemplate batches are included alongside Hibernate's statements
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Client client;
+    private Product clavier;
+    private Product souris;
+    private Order paidOrder;
+    private Order unpaidOrder;
+    private Payment pendingPayment;
+
+    @BeforeEach
+    void setUp() {
+        client = persistClient("alice");
+        Client other = persistClient("bob");
+        clavier = persistProduct("Clavier", 50.0);
+        souris = persistProduct("Souris", 20.0);
+
+        paidOrder = persistOrder(client, List.of(clavier, souris), 0.0);
+        unpaidOrder = persistOrder(client, List.of(clavier), 60.0);
+        persistOrder(other, List.of(clavier, souris), 84.0);
+
+        pendingPayment = Payment.builder()
+                .order(unpaidOrder)
+                .numeroPaiement(1)
+                .montant(Money.of(60.0))
+                .typePaiement(PaymentMethod.VIREMENT)
+                .datePaiement(LocalDateTime.now())
+                .reference("VIR-1")
+                .banque("CIH")
+                .build();
+        entityManager.persist(pendingPayment);
+        unpaidOrder.setDernierNumeroPaiement(1);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        STATEMENTS.set(0);
+    }
+
+    @Test
+    void getOrderById_LoadsClientItemsAndProductsInOneStatement() {
+        orderService.getOrderById(paidOrder.getId());
+
+        assertStatements(1);
+    }
+
+    @Test
+    void getOrders_ReadsPageInTwoStatements() {
+        orderService.getOrders(OrderFilterRequest.builder().size(2).build());
+
+        assertStatements(2);
+    }
+
+    @Test
+    void confirmOrder_SelectsOnceThenWrites() {
+        orderService.confirmOrder(paidOrder.getId());
+        entityManager.flush();
+
+        // order graph, reservation status update, client stats outbox insert, order update
+        assertStatements(4);
+    }
+
+    @Test
+    void cancelOrder_SelectsOrderAndReservationsThenWrites() {
+        orderService.cancelOrder(unpaidOrder.getId());
+        entityManager.flush();
+
+        // order graph, locked reservations, stock batch, order update, reservation update
+        assertStatements(5);
+    }
+
+    @Test
+    void createOrder_LoadsClientAndProductsOnceThenWrites() {
+        orderService.createOrder(orderRequest(clavier, souris));
+        entityManager.flush();
+
+        // client, products, stock batch, then one insert batch each for order, items and reservations
+        assertStatements(6);
+    }
+
+    @Test
+    void createOrders_SharesClientAndProductLookupsAcrossTheBatch() {
+        orderService.createOrders(List.of(orderRequest(clavier, souris), orderRequest(clavier)));
+        entityManager.flush();
+
+        // clients, products, one stock batch per order, then the inserts of both orders batched per table
+        assertStatements(7);
+    }
+
+    @Test
+    void createPayment_LocksOrderThenWrites() {
+        paymentService.createPayment(PaymentRequest.builder()
+                .orderId(unpaidOrder.getId())
+                .montant(20.0)
+                .typePaiement(PaymentMethod.ESPECES)
+                .reference("REC-1")
+                .build());
+        entityManager.flush();
+
+        // locked order, payment id, payment insert, order update
+        assertStatements(4);
+    }
+
+    @Test
+    void browseProducts_ReadsPageInOneStatement() {
+        productService.browseProducts(ProductFilterRequest.builder().inStock(true).size(1).build());
+
+        assertStatements(1);
+    }
+
+    @Test
+    void decrementStocks_UpdatesAllLinesInOneBatch() {
+        productService.decrementStocks(Map.of(clavier.getId(), 2, souris.getId(), 1));
+
+        assertStatements(1);
+    }
+
+    @Test
+    void getPaymentById_DoesNotLoadOrder() {
+        paymentService.getPaymentById(pendingPayment.getId());
+
+        assertStatements(1);
+    }
+
+    @Test
+    void getPaymentsByOrderId_UsesOneStatement() {
+        paymentService.getPaymentsByOrderId(unpaidOrder.getId());
+
+        assertStatements(1);
+    }
+
+    @Test
+    void updatePaymentStatus_AppliesDeltaWithoutReloadingPayments() {
+        paymentService.updatePaymentStatus(pendingPayment.getId(),
+                UpdatePaymentStatusRequest.builder().status(PaymentStatus.ENCAISSE).build());
+        entityManager.flush();
+
+        // locked payment, locked order, payment update, order update
+        assertStatements(4);
+
+        Order order = entityManager.find(Order.class, unpaidOrder.getId());
+        assertEquals(Money.of(60.0), order.getMontantEncaisse());
+        assertEquals(Money.ZERO, order.getMontantRestant());
+    }
+
+    @Test
+    void getClientById_DoesNotLoadUser() {
+        clientService.getClientById(client.getId());
+
+        assertStatements(1);
+    }
+
+    @Test
+    void getAllClients_UsesOneStatement() {
+        clientService.getAllClients();
+
+        assertStatements(1);
+    }
+
+    @Test
+    void getClientOrderHistory_UsesTwoStatements() {
+        clientService.getClientOrderHistory(client.getId());
+
+        assertStatements(2);
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, STATEMENTS.get());
+        assertEquals(0, statistics.getEntityFetchCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    private OrderRequest orderRequest(Product... products) {
+        List<OrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (Product product : products) {
+            items.add(OrderRequest.OrderItemRequest.builder()
+                    .productId(product.getId())
+                    .quantite(1)
+                    .build());
+        }
+        return OrderRequest.builder()
+                .clientId(client.getId())
+                .items(items)
+                .build();
+    }
+
+    private Client persistClient(String name) {
+        User user = User.builder()
+                .username(name)
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .build();
+        entityManager.persist(user);
+
+        Client newClient = Client.builder()
+                .nom(name)
+                .email(name + "@example.com")
+                .telephone("0600000000")
+                .user(user)
+                .build();
+        entityManager.persist(newClient);
+        return newClient;
+    }
+
+    private Product persistProduct(String name, Double price) {
+        Product product = Product.builder()
+                .nom(name)
+                .prixUnitaire(Money.of(price))
+                .stock(100)
+                .build();
+        entityManager.persist(product);
+        return product;
+    }
+
+    private Order persistOrder(Client owner, List<Product> products, Double montantRestant) {
+        Order order = Order.builder()
+                .client(owner)
+                .dateCreation(LocalDateTime.now())
+                .sousTotal(Money.of(50.0))
+                .montantHtApresRemise(Money.of(50.0))
+                .tva(Money.of(10.0))
+                .totalTtc(Money.of(60.0))
+                .montantRestant(Money.of(montantRestant))
+                .status(OrderStatus.PENDING)
+                .build();
+
+        for (Product product : products) {
+            order.getOrderItems().add(OrderItem.builder()
+                    .order(order)
+                    .product(product)
+                    .quantite(1)
+                    .prixUnitaire(product.getPrixUnitaire())
+                    .totalLigne(product.getPrixUnitaire())
+                    .build());
+        }
+        entityManager.persist(order);
+
+        entityManager.persist(StockReservation.builder()
+                .order(order)
+                .product(products.get(0))
+                .quantite(1)
+                .expiresAt(order.getDateCreation().plusHours(72))
+                .status(ReservationStatus.ACTIVE)
+                .build());
+        return order;
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource target && !(bean instanceof CountingDataSource)
+                            ? new CountingDataSource(target)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("prepareStatement") || method.getName().equals("prepareCall")
+                                || method.getName().equals("createStatement")) {
+                            STATEMENTS.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
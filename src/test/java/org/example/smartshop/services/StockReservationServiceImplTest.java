@@ -0,0 +1,127 @@
+package org.example.smartshop.services;
+
+import org.example.smartshop.entity.Order;
+import org.example.smartshop.entity.Product;
+import org.example.smartshop.entity.StockReservation;
+import org.example.smartshop.enums.OrderStatus;
+import org.example.smartshop.enums.ReservationStatus;
+import org.example.smartshop.repositories.OrderRepository;
+import org.example.smartshop.repositories.StockReservationRepository;
+import org.example.smartshop.services.impl.StockReservationServiceImpl;
+import org.example.smartshop.utils.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class StockReservationServiceImplTest {
+
+    private final StockReservationRepository stockReservationRepository = mock(StockReservationRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final StockAllocator stockAllocator = mock(StockAllocator.class);
+    private final StockReservationServiceImpl reservationService = new StockReservationServiceImpl(
+            stockReservationRepository, orderRepository, stockAllocator, mock(ApplicationEventPublisher.class),
+            Duration.ofHours(72));
+
+    @Test
+    void expire_UnpaidOrderPastExpiry_ReleasesStockAndCancels() {
+        Order order = order(1L, Money.ZERO);
+        StockReservation reservation = reservation(order, 10L, 3, LocalDateTime.now().minusMinutes(1));
+        when(orderRepository.findUnpaidForUpdateByIdIn(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(order));
+        when(stockReservationRepository.findByOrderIdInAndStatus(List.of(1L), ReservationStatus.ACTIVE))
+                .thenReturn(List.of(reservation));
+
+        reservationService.expire(List.of(1L));
+
+        assertEquals(ReservationStatus.RELEASED, reservation.getStatus());
+        verify(stockAllocator).release(Map.of(10L, 3));
+        verify(orderRepository).updateStatusByIdIn(Set.of(1L), OrderStatus.PENDING, OrderStatus.CANCELED);
+    }
+
+    @Test
+    void expire_OrderWithPaymentRecorded_KeepsReservation() {
+        when(orderRepository.findUnpaidForUpdateByIdIn(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of());
+
+        reservationService.expire(List.of(1L));
+
+        verifyNoInteractions(stockReservationRepository, stockAllocator);
+        verify(orderRepository, never()).updateStatusByIdIn(any(), any(), any());
+    }
+
+    @Test
+    void expire_CashedAmountDriftedFromPaymentCount_KeepsReservation() {
+        when(orderRepository.findUnpaidForUpdateByIdIn(List.of(1L), OrderStatus.PENDING))
+                .thenReturn(List.of(order(1L, Money.of(500))));
+
+        reservationService.expire(List.of(1L));
+
+        verifyNoInteractions(stockReservationRepository, stockAllocator);
+        verify(orderRepository, never()).updateStatusByIdIn(any(), any(), any());
+    }
+
+    @Test
+    void expire_ReservationExtendedPastNow_LeavesOrderPending() {
+        Order order = order(1L, Money.ZERO);
+        StockReservation reservation = reservation(order, 10L, 3, LocalDateTime.now().plusHours(1));
+        when(orderRepository.findUnpaidForUpdateByIdIn(List.of(1L), OrderStatus.PENDING)).thenReturn(List.of(order));
+        when(stockReservationRepository.findByOrderIdInAndStatus(List.of(1L), ReservationStatus.ACTIVE))
+                .thenReturn(List.of(reservation));
+
+        reservationService.expire(List.of(1L));
+
+        assertEquals(ReservationStatus.ACTIVE, reservation.getStatus());
+        verify(stockAllocator).release(Map.of());
+        verify(orderRepository, never()).updateStatusByIdIn(any(), any(), any());
+    }
+
+    @Test
+    void release_ReleasesActiveReservationsWhateverTheirExpiry() {
+        Order order = order(1L, Money.of(500));
+        StockReservation first = reservation(order, 10L, 3, LocalDateTime.now().plusDays(2));
+        StockReservation second = reservation(order, 11L, 1, LocalDateTime.now().minusDays(1));
+        when(stockReservationRepository.findByOrderIdInAndStatus(List.of(1L), ReservationStatus.ACTIVE))
+                .thenReturn(List.of(first, second));
+
+        reservationService.release(1L);
+
+        assertEquals(ReservationStatus.RELEASED, first.getStatus());
+        assertEquals(ReservationStatus.RELEASED, second.getStatus());
+        verify(stockAllocator).release(Map.of(10L, 3, 11L, 1));
+        verify(orderRepository, never()).updateStatusByIdIn(any(), any(), any());
+    }
+
+    @Test
+    void confirm_MarksActiveReservationsConfirmedWithoutReleasingStock() {
+        reservationService.confirm(1L);
+
+        verify(stockReservationRepository)
+                .updateStatusByOrderId(1L, ReservationStatus.ACTIVE, ReservationStatus.CONFIRMED);
+        verify(stockAllocator, never()).release(anyMap());
+    }
+
+    private Order order(Long id, Money encaisse) {
+        return Order.builder()
+                .id(id)
+                .status(OrderStatus.PENDING)
+                .montantEncaisse(encaisse)
+                .build();
+    }
+
+    private StockReservation reservation(Order order, Long productId, int quantite, LocalDateTime expiresAt) {
+        return StockReservation.builder()
+                .order(order)
+                .product(Product.builder().id(productId).build())
+                .quantite(quantite)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
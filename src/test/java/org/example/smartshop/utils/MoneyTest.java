@@ -0,0 +1,42 @@
+package org.example.smartshop.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_RoundsDecimalRepresentationHalfUp() {
+        assertEquals(101, Money.of(1.005).cents());
+        assertEquals(100, Money.of(1.004).cents());
+        assertEquals(-101, Money.of(-1.005).cents());
+    }
+
+    @Test
+    void applyRate_RoundsHalfUpAwayFromZero() {
+        assertEquals(3, Money.applyRate(25, 1000));     // 2.5 -> 3
+        assertEquals(2, Money.applyRate(24, 1000));     // 2.4 -> 2
+        assertEquals(-3, Money.applyRate(-25, 1000));   // -2.5 -> -3
+        assertEquals(11400, Money.applyRate(57000, Money.basisPoints(0.20)));
+    }
+
+    @Test
+    void sumOfLines_StaysExact() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.of(0.1));
+        }
+
+        assertEquals(Money.of(1.0), total);
+        assertEquals(1.0, total.toDouble());
+    }
+
+    @Test
+    void toBigDecimal_HasScaleTwo() {
+        assertEquals(new BigDecimal("12.30"), Money.ofCents(1230).toBigDecimal());
+        assertEquals("12.30", Money.ofCents(1230).toString());
+    }
+}
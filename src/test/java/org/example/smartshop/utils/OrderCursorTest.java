@@ -0,0 +1,42 @@
+package org.example.smartshop.utils;
+
+import org.example.smartshop.dtos.response.OrderResponse;
+import org.example.smartshop.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCursorTest {
+
+    @Test
+    void encode_RoundTripsDateAndId() {
+        OrderCursor cursor = OrderCursor.of(OrderResponse.builder()
+                .id(42L)
+                .dateCreation(LocalDateTime.of(2025, 3, 1, 9, 15, 30, 123_456_000))
+                .build());
+
+        assertEquals(cursor, OrderCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void encode_IsUrlSafeWithoutPadding() {
+        String encoded = new OrderCursor(LocalDateTime.of(2025, 3, 1, 9, 15), 7L).encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decode_Garbage_ThrowsBusinessException() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2025-03-01T09:15".getBytes());
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday|7".getBytes());
+        String badId = Base64.getUrlEncoder().encodeToString("2025-03-01T09:15|seven".getBytes());
+
+        assertThrows(BusinessException.class, () -> OrderCursor.decode("not a cursor!"));
+        assertThrows(BusinessException.class, () -> OrderCursor.decode(noSeparator));
+        assertThrows(BusinessException.class, () -> OrderCursor.decode(badDate));
+        assertThrows(BusinessException.class, () -> OrderCursor.decode(badId));
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.smartshop.utils;
+
+import org.example.smartshop.entity.Product;
+import org.example.smartshop.enums.ProductSort;
+import org.example.smartshop.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCursorTest {
+
+    private final Product product = Product.builder()
+            .id(42L)
+            .nom("Câble | USB-C")
+            .prixUnitaire(Money.of(19.99))
+            .build();
+
+    @Test
+    void encode_RoundTripsEverySort() {
+        for (ProductSort sort : ProductSort.values()) {
+            ProductCursor cursor = ProductCursor.of(sort, product);
+
+            assertEquals(cursor, ProductCursor.decode(cursor.encode(), sort));
+        }
+    }
+
+    @Test
+    void decode_PrixCursor_ReadsMoney() {
+        ProductCursor cursor = ProductCursor.decode(ProductCursor.of(ProductSort.PRIX_DESC, product).encode(), ProductSort.PRIX_DESC);
+
+        assertEquals(Money.of(19.99), cursor.prix());
+        assertEquals("Câble | USB-C", ProductCursor.decode(ProductCursor.of(ProductSort.NOM, product).encode(), ProductSort.NOM).value());
+    }
+
+    @Test
+    void decode_OtherSortOrGarbage_ThrowsBusinessException() {
+        String cursor = ProductCursor.of(ProductSort.NOM, product).encode();
+
+        assertThrows(BusinessException.class, () -> ProductCursor.decode(cursor, ProductSort.PRIX_ASC));
+        assertThrows(BusinessException.class, () -> ProductCursor.decode("not a cursor", ProductSort.ID));
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.smartshop.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Test
+    void tokenize_FoldsAccentsLigaturesAndElisions() {
+        assertEquals(List.of("ecran", "ordinateur", "oeuvre"), ProductSearchIndex.tokenize("L'Écran des Ordinateurs Œuvre"));
+    }
+
+    @Test
+    void search_IsAccentAndCaseInsensitive() {
+        index.index(1L, "Écran 27 pouces", "Dalle mate");
+
+        assertEquals(List.of(1L), index.search("ECRAN", 10));
+        assertEquals(List.of(1L), index.search("écrans", 10));
+    }
+
+    @Test
+    void search_MatchesPrefixesAndRanksNomAboveDescription() {
+        index.index(1L, "Souris sans fil", "Compatible avec tous les ordinateurs");
+        index.index(2L, "Ordinateur portable", "Léger et puissant");
+
+        assertEquals(List.of(2L, 1L), index.search("ordi", 10));
+        assertEquals(List.of(1L), index.search("ordi souris", 10));
+        assertEquals(List.of(2L), index.search("ordi", 1));
+    }
+
+    @Test
+    void search_WholeWordBeatsPrefix() {
+        index.index(1L, "Portables", null);
+        index.index(2L, "Portefeuille", null);
+        index.index(3L, "Porte", null);
+
+        assertEquals(3L, index.search("porte", 10).get(0));
+    }
+
+    @Test
+    void index_ReplacesAndRemoveDropsProduct() {
+        index.index(1L, "Souris", null);
+        index.index(1L, "Clavier", null);
+        index.index(2L, "Casque", null);
+        index.remove(2L);
+
+        assertTrue(index.search("souris", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("clav", 10));
+        assertTrue(index.search("casque", 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void compaction_KeepsLiveProductsSearchable() {
+        for (long id = 1; id <= 5000; id++) {
+            index.index(id, "Produit " + id, null);
+        }
+        for (long id = 1; id <= 4000; id++) {
+            index.remove(id);
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(List.of(4001L, 4002L), index.search("produit", 2));
+        assertEquals(List.of(4500L), index.search("produit 4500", 10));
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.smartshop.utils;
+
+import org.example.smartshop.enums.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignedTokenCodecTest {
+
+    private static final byte[] OLD_KEY = key(1);
+    private static final byte[] NEW_KEY = key(2);
+    private static final Instant NOW = Instant.parse("2025-06-01T10:00:00Z");
+
+    private final SessionUser user = SessionUser.builder()
+            .id(3L)
+            .username("jean|dupont")
+            .role(UserRole.CLIENT)
+            .clientId(12L)
+            .build();
+
+    @Test
+    void verify_IssuedToken_RestoresUser() {
+        SignedTokenCodec codec = new SignedTokenCodec(Map.of("k1", OLD_KEY), "k1", Duration.ofHours(1));
+
+        SessionUser verified = codec.verify(codec.issue(user, NOW), NOW.plusSeconds(60));
+
+        assertEquals(3L, verified.getId());
+        assertEquals("jean|dupont", verified.getUsername());
+        assertEquals(UserRole.CLIENT, verified.getRole());
+        assertEquals(12L, verified.getClientId());
+    }
+
+    @Test
+    void verify_AdminWithoutClientId_KeepsNull() {
+        SignedTokenCodec codec = new SignedTokenCodec(Map.of("k1", OLD_KEY), "k1", Duration.ofHours(1));
+        SessionUser admin = SessionUser.builder().id(1L).username("admin").role(UserRole.ADMIN).build();
+
+        assertNull(codec.verify(codec.issue(admin, NOW), NOW).getClientId());
+    }
+
+    @Test
+    void verify_ExpiredToken_ReturnsNull() {
+        SignedTokenCodec codec = new SignedTokenCodec(Map.of("k1", OLD_KEY), "k1", Duration.ofHours(1));
+
+        assertNull(codec.verify(codec.issue(user, NOW), NOW.plus(Duration.ofHours(1))));
+    }
+
+    @Test
+    void verify_TamperedOrGarbage_ReturnsNull() {
+        SignedTokenCodec codec = new SignedTokenCodec(Map.of("k1", OLD_KEY), "k1", Duration.ofHours(1));
+        String token = codec.issue(user, NOW);
+        String[] parts = token.split("\\.");
+        SessionUser admin = SessionUser.builder().id(3L).username("x").role(UserRole.ADMIN).build();
+        String forgedPayload = codec.issue(admin, NOW).split("\\.")[1];
+
+        assertNull(codec.verify(parts[0] + "." + forgedPayload + "." + parts[2], NOW));
+        assertNull(codec.verify("k2." + parts[1] + "." + parts[2], NOW));
+        assertNull(codec.verify(token + "x", NOW));
+        assertNull(codec.verify("not-a-token", NOW));
+        assertNull(codec.verify("k1.!!.??", NOW));
+        assertNull(codec.verify(null, NOW));
+    }
+
+    @Test
+    void verify_AfterRotation_AcceptsOldKeyUntilItIsRemoved() {
+        SignedTokenCodec before = new SignedTokenCodec(Map.of("k1", OLD_KEY), "k1", Duration.ofHours(1));
+        SignedTokenCodec rotated = new SignedTokenCodec(Map.of("k1", OLD_KEY, "k2", NEW_KEY), "k2", Duration.ofHours(1));
+        SignedTokenCodec retired = new SignedTokenCodec(Map.of("k2", NEW_KEY), "k2", Duration.ofHours(1));
+        String oldToken = before.issue(user, NOW);
+        String newToken = rotated.issue(user, NOW);
+
+        assertTrue(newToken.startsWith("k2."));
+        assertNotNull(rotated.verify(oldToken, NOW));
+        assertNull(retired.verify(oldToken, NOW));
+        assertNotNull(retired.verify(newToken, NOW));
+    }
+
+    @Test
+    void constructor_KeyIdsInAnyCase_NormalisedToLowercase() {
+        SignedTokenCodec codec = new SignedTokenCodec(Map.of("k1", OLD_KEY, "k2", NEW_KEY), "K2", Duration.ofHours(1));
+        SignedTokenCodec upper = new SignedTokenCodec(Map.of("K2", NEW_KEY), "k2", Duration.ofHours(1));
+
+        String token = codec.issue(user, NOW);
+
+        assertTrue(token.startsWith("k2."));
+        assertNotNull(upper.verify(token, NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SignedTokenCodec(Map.of("k2", OLD_KEY, "K2", NEW_KEY), "k2", Duration.ofHours(1)));
+    }
+
+    @Test
+    void constructor_ShortOrMissingActiveKey_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SignedTokenCodec(Map.of("k1", new byte[16]), "k1", Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SignedTokenCodec(Map.of("k1", OLD_KEY), "k2", Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SignedTokenCodec(Map.of("k1", OLD_KEY), null, Duration.ofHours(1)));
+    }
+
+    private static byte[] key(int seed) {
+        byte[] key = new byte[32];
+        Arrays.fill(key, (byte) seed);
+        return key;
+    }
+}
@@ -0,0 +1,85 @@
+-- What ddl-auto=update created from the entities before the schema moved to Liquibase
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE clients (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nom VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    telephone VARCHAR(255) NOT NULL,
+    adresse VARCHAR(255),
+    tier VARCHAR(255) NOT NULL,
+    total_orders INT NOT NULL,
+    total_spent DOUBLE PRECISION NOT NULL,
+    first_order_date TIMESTAMP,
+    last_order_date TIMESTAMP,
+    user_id BIGINT UNIQUE REFERENCES users (id)
+);
+
+CREATE TABLE products (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nom VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    prix_unitaire DOUBLE PRECISION NOT NULL,
+    stock INT NOT NULL,
+    deleted BOOLEAN NOT NULL
+);
+
+CREATE TABLE orders (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    client_id BIGINT NOT NULL REFERENCES clients (id),
+    date_creation TIMESTAMP NOT NULL,
+    sous_total DOUBLE PRECISION NOT NULL,
+    montant_remise DOUBLE PRECISION NOT NULL,
+    montant_ht_apres_remise DOUBLE PRECISION NOT NULL,
+    tva DOUBLE PRECISION NOT NULL,
+    total_ttc DOUBLE PRECISION NOT NULL,
+    montant_restant DOUBLE PRECISION NOT NULL,
+    code_promo VARCHAR(255),
+    status VARCHAR(255) NOT NULL,
+    taux_tva DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE order_items (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id BIGINT NOT NULL REFERENCES orders (id),
+    product_id BIGINT NOT NULL REFERENCES products (id),
+    quantite INT NOT NULL,
+    prix_unitaire DOUBLE PRECISION NOT NULL,
+    total_ligne DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE payments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id BIGINT NOT NULL REFERENCES orders (id),
+    numero_paiement INT NOT NULL,
+    montant DOUBLE PRECISION NOT NULL,
+    type_paiement VARCHAR(255) NOT NULL,
+    date_paiement TIMESTAMP NOT NULL,
+    date_encaissement DATE,
+    status VARCHAR(255) NOT NULL,
+    reference VARCHAR(255),
+    banque VARCHAR(255),
+    date_echeance DATE
+);
+
+INSERT INTO users (username, password, role) VALUES ('alice', 'secret', 'CLIENT');
+INSERT INTO clients (nom, email, telephone, tier, total_orders, total_spent, user_id)
+VALUES ('alice', 'alice@example.com', '0600000000', 'BASIC', 2, 1500.0, 1);
+INSERT INTO products (nom, prix_unitaire, stock, deleted) VALUES ('Clavier', 250.0, 10, false);
+
+INSERT INTO orders (client_id, date_creation, sous_total, montant_remise, montant_ht_apres_remise, tva, total_ttc,
+                    montant_restant, status, taux_tva)
+VALUES (1, TIMESTAMP '2025-01-01 10:00:00', 1000.0, 0.0, 1000.0, 200.0, 1200.0, 700.0, 'PENDING', 0.20),
+       (1, TIMESTAMP '2025-01-02 10:00:00', 250.0, 0.0, 250.0, 50.0, 300.0, 300.0, 'PENDING', 0.20);
+INSERT INTO order_items (order_id, product_id, quantite, prix_unitaire, total_ligne) VALUES (1, 1, 4, 250.0, 1000.0);
+INSERT INTO payments (order_id, numero_paiement, montant, type_paiement, date_paiement, status)
+VALUES (1, 1, 200.0, 'ESPECES', TIMESTAMP '2025-01-01 11:00:00', 'ENCAISSE'),
+       (1, 2, 300.0, 'CHEQUE', TIMESTAMP '2025-01-01 12:00:00', 'ENCAISSE'),
+       (1, 3, 400.0, 'CHEQUE', TIMESTAMP '2025-01-01 13:00:00', 'EN_ATTENTE'),
+       (2, 1, 100.0, 'CHEQUE', TIMESTAMP '2025-01-02 11:00:00', 'EN_ATTENTE'),
+       (2, 1, 200.0, 'CHEQUE', TIMESTAMP '2025-01-02 11:00:00', 'EN_ATTENTE');